@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.benchmark;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.runner.Description;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import hudson.model.FreeStyleProject;
+import hudson.model.Job;
+import hudson.triggers.TimerTrigger;
+import io.jenkins.plugins.view.calendar.timeline.BuildIntervalIndex;
+import io.jenkins.plugins.view.calendar.timeline.BuildTimelineStore;
+import jenkins.model.Jenkins;
+
+/**
+ * Starts a Jenkins for a benchmark and fills it with jobs and build
+ * histories. The builds are written to disk as build records and loaded by
+ * Jenkins like the builds of a real controller, so the benchmarks pay for
+ * loading builds lazily just like a controller does.
+ *
+ * <p>
+ * The build timelines of the jobs are created and indexed while the jobs are
+ * loaded, like on a controller that has been running for a while. Otherwise
+ * the first queries would schedule their creation in the background and the
+ * warmup and measurement iterations would take different code paths
+ * depending on when it finishes.
+ */
+final class BenchmarkJenkins {
+
+  static final String[] CRON_SPECS = { "H H * * *", "H H/4 * * *", "H * * * *", "H/15 * * * *", "H/5 * * * *" };
+
+  private final JenkinsRule rule = new JenkinsRule() {
+    {
+      testDescription = Description.createSuiteDescription(BenchmarkJenkins.class);
+      // benchmarks run longer than tests
+      timeout = 0;
+    }
+  };
+
+  private final List<String> jobNames = new ArrayList<>();
+
+  void start() throws Throwable {
+    rule.before();
+  }
+
+  void stop() throws Exception {
+    rule.after();
+  }
+
+  /**
+   * Creates jobs with a mix of cron densities, each with a history of builds
+   * every <code>interval</code> milliseconds up to <code>lastStart</code>.
+   */
+  void createJobs(int count, int depth, long lastStart, long interval) throws Exception {
+    for (int i = 0; i < count; i++) {
+      createJob("job" + i, CRON_SPECS[i % CRON_SPECS.length], depth, lastStart - (depth - 1) * interval, interval);
+    }
+  }
+
+  void createJob(String name, String spec, int depth, long firstStart, long interval) throws Exception {
+    FreeStyleProject project = rule.createFreeStyleProject(name);
+    project.addTrigger(new TimerTrigger(spec));
+    long duration = interval / 4;
+    for (int i = 0; i < depth; i++) {
+      writeBuild(project, i + 1, firstStart + i * interval, duration);
+    }
+    Files.writeString(new File(project.getRootDir(), "nextBuildNumber").toPath(), String.valueOf(depth + 1), StandardCharsets.UTF_8);
+    jobNames.add(name);
+  }
+
+  /**
+   * Loads the jobs again from disk, together with the builds written for
+   * them, indexes their builds and returns them in the order they were
+   * created.
+   */
+  List<Job> load() throws Exception {
+    Jenkins jenkins = rule.jenkins;
+    jenkins.reload();
+    List<Job> jobs = new ArrayList<>(jobNames.size());
+    for (String name : jobNames) {
+      Job job = jenkins.getItemByFullName(name, Job.class);
+      BuildTimelineStore.get().rebuild(job);
+      // loads the timeline into the index
+      if (BuildIntervalIndex.get().getBuildNumbers(job, 0, 0) == null) {
+        throw new IllegalStateException("Unable to index the builds of " + name);
+      }
+      jobs.add(job);
+    }
+    return jobs;
+  }
+
+  private static void writeBuild(FreeStyleProject project, int number, long start, long duration) throws Exception {
+    File buildDir = new File(project.getBuildDir(), String.valueOf(number));
+    Files.createDirectories(buildDir.toPath());
+    String buildXml = "<?xml version='1.1' encoding='UTF-8'?>\n"
+        + "<build>\n"
+        + "  <timestamp>" + start + "</timestamp>\n"
+        + "  <startTime>" + start + "</startTime>\n"
+        + "  <result>SUCCESS</result>\n"
+        + "  <duration>" + duration + "</duration>\n"
+        + "</build>\n";
+    Files.writeString(new File(buildDir, "build.xml").toPath(), buildXml, StandardCharsets.UTF_8);
+  }
+}
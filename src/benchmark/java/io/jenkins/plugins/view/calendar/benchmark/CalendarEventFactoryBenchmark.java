@@ -0,0 +1,101 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.benchmark;
+
+import static io.jenkins.plugins.view.calendar.test.CalendarUtil.cal;
+import static io.jenkins.plugins.view.calendar.test.CalendarUtil.hours;
+import static io.jenkins.plugins.view.calendar.test.CalendarUtil.minutes;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hudson.model.Job;
+import hudson.model.Run;
+import io.jenkins.plugins.view.calendar.event.CalendarEventFactory;
+import io.jenkins.plugins.view.calendar.event.ScheduledCalendarEvent;
+import io.jenkins.plugins.view.calendar.event.StartedCalendarEvent;
+import io.jenkins.plugins.view.calendar.service.CalendarEventService;
+import io.jenkins.plugins.view.calendar.service.CronJobService;
+import io.jenkins.plugins.view.calendar.time.Moment;
+
+/**
+ * Measures the creation of single events, which every other benchmark pays
+ * for once per event it returns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalendarEventFactoryBenchmark {
+
+  private static final Map<String, String> NO_PARAMETERS = Collections.emptyMap();
+
+  private BenchmarkJenkins jenkins;
+  private CalendarEventFactory calendarEventFactory;
+  private Job job;
+  private Run build;
+  private long start;
+
+  @Setup
+  public void setUp() throws Throwable {
+    Moment now = new Moment(cal("2018-01-17 12:00:00 CET"));
+    jenkins = new BenchmarkJenkins();
+    jenkins.start();
+    jenkins.createJob("job", "H * * * *", 1, now.getTimeInMillis() - hours(1), hours(1));
+    job = jenkins.load().get(0);
+    build = job.getLastBuild();
+    calendarEventFactory = new CalendarEventFactory(now, new CalendarEventService(now, new CronJobService(now)));
+    start = now.getTimeInMillis() + minutes(30);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    jenkins.stop();
+  }
+
+  @Benchmark
+  public ScheduledCalendarEvent createScheduledEvent() {
+    return calendarEventFactory.createScheduledEvent(job, NO_PARAMETERS, start, minutes(15));
+  }
+
+  @Benchmark
+  public StartedCalendarEvent createStartedEvent() {
+    return calendarEventFactory.createStartedEvent(job, build);
+  }
+}
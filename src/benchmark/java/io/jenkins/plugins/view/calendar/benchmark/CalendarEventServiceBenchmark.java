@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.benchmark;
+
+import static io.jenkins.plugins.view.calendar.test.CalendarUtil.cal;
+import static io.jenkins.plugins.view.calendar.test.CalendarUtil.hours;
+import static io.jenkins.plugins.view.calendar.time.MomentRange.range;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hudson.model.Job;
+import io.jenkins.plugins.view.calendar.CalendarView.CalendarViewEventsType;
+import io.jenkins.plugins.view.calendar.CalendarView.CalendarViewType;
+import io.jenkins.plugins.view.calendar.event.CalendarEvent;
+import io.jenkins.plugins.view.calendar.service.CalendarEventService;
+import io.jenkins.plugins.view.calendar.service.CronJobService;
+import io.jenkins.plugins.view.calendar.time.Moment;
+import io.jenkins.plugins.view.calendar.time.MomentRange;
+
+/**
+ * Measures a whole calendar request: past builds, running builds and
+ * scheduled builds of many jobs for the ranges a month, week or day view
+ * asks for. The ranges start before and end after <code>now</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalendarEventServiceBenchmark {
+
+  @Param({ "MONTH", "WEEK", "DAY" })
+  public CalendarViewType viewType;
+
+  @Param({ "100" })
+  public int jobCount;
+
+  @Param({ "1000" })
+  public int historyDepth;
+
+  private BenchmarkJenkins jenkins;
+  private List<Job> jobs;
+  private Moment now;
+  private MomentRange range;
+
+  @Setup
+  public void setUp() throws Throwable {
+    now = new Moment(cal("2018-01-17 12:00:00 CET"));
+    jenkins = new BenchmarkJenkins();
+    jenkins.start();
+    jenkins.createJobs(jobCount, historyDepth, now.getTimeInMillis() - hours(1), hours(2));
+    jobs = jenkins.load();
+    switch (viewType) {
+      case MONTH:
+        range = range(cal("2018-01-01 00:00:00 CET"), cal("2018-02-12 00:00:00 CET"));
+        break;
+      case WEEK:
+        range = range(cal("2018-01-15 00:00:00 CET"), cal("2018-01-22 00:00:00 CET"));
+        break;
+      default:
+        range = range(cal("2018-01-17 00:00:00 CET"), cal("2018-01-18 00:00:00 CET"));
+        break;
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    jenkins.stop();
+  }
+
+  @Benchmark
+  public List<CalendarEvent> getCalendarEvents() {
+    return new CalendarEventService(now, new CronJobService(now)).getCalendarEvents(jobs, range, CalendarViewEventsType.ALL);
+  }
+}
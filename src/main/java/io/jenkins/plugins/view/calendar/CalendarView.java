@@ -40,30 +40,64 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.regex.Pattern;
 
 import org.apache.commons.text.StringEscapeUtils;
+import org.apache.log4j.Logger;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.Stapler;
 import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+import org.kohsuke.stapler.verb.GET;
+import org.springframework.security.core.Authentication;
 
 import hudson.Extension;
 import hudson.model.Descriptor;
 import hudson.model.Job;
 import hudson.model.ListView;
+import hudson.model.Run;
 import hudson.model.TopLevelItem;
+import hudson.model.View;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
 import io.jenkins.plugins.view.calendar.event.CalendarEvent;
+import io.jenkins.plugins.view.calendar.event.CalendarEventJsonWriter;
+import io.jenkins.plugins.view.calendar.service.BuildChangeJournal;
+import io.jenkins.plugins.view.calendar.service.BuildEventStream;
 import io.jenkins.plugins.view.calendar.service.CalendarEventService;
 import io.jenkins.plugins.view.calendar.service.CronJobService;
+import io.jenkins.plugins.view.calendar.service.CronTabCache;
+import io.jenkins.plugins.view.calendar.service.EventsExecutor;
+import io.jenkins.plugins.view.calendar.service.JobMemo;
+import io.jenkins.plugins.view.calendar.service.PastEventsCache;
+import io.jenkins.plugins.view.calendar.service.SingleFlight;
 import io.jenkins.plugins.view.calendar.time.Moment;
+import io.jenkins.plugins.view.calendar.time.MomentRange;
 import io.jenkins.plugins.view.calendar.util.RequestUtil;
+import jakarta.servlet.AsyncContext;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
 
 @SuppressWarnings({ "PMD.GodClass", "PMD.ExcessivePublicCount", "PMD.TooManyFields" })
 @Restricted(NoExternalUse.class)
 public class CalendarView extends ListView {
+  private static final Logger LOGGER = Logger.getLogger(CalendarView.class);
+
+  // keeps entity and sync tokens from before a restart from matching, since
+  // job configuration and build changes are only counted since startup
+  private static final long STARTED = System.currentTimeMillis();
+  private static final long MINUTE = 60 * 1000L;
+  private static final SingleFlight<List<Object>, CollectedEvents> EVENTS_IN_FLIGHT = new SingleFlight<>();
+
+  // milliseconds after which the events collected so far are returned, 0 for no limit
+  public static final int EVENTS_DEADLINE = SystemProperties.getInteger(CalendarView.class.getName() + ".eventsDeadline", 30_000);
 
   public static enum CalendarViewEventsType {
     ALL, BUILDS, POLLINGS;
@@ -162,6 +196,7 @@ public class CalendarView extends ListView {
   private CalendarViewEventsType calendarViewEventsType;
   private CalendarViewType calendarViewType;
   private ResultsColors resultsColors;
+  private Integer scheduledEventsSummaryThreshold;
 
   private Boolean useCustomFormats;
   private Boolean useCustomWeekSettings;
@@ -225,6 +260,14 @@ public class CalendarView extends ListView {
     this.resultsColors = resultsColors;
   }
 
+  public int getScheduledEventsSummaryThreshold() {
+    return defaultIfNull(scheduledEventsSummaryThreshold, 0);
+  }
+
+  public void setScheduledEventsSummaryThreshold(final int scheduledEventsSummaryThreshold) {
+    this.scheduledEventsSummaryThreshold = scheduledEventsSummaryThreshold;
+  }
+
   public boolean isUseCustomFormats() {
     return defaultIfNull(useCustomFormats, false);
   }
@@ -443,16 +486,27 @@ public class CalendarView extends ListView {
     this.validate(req);
     super.submit(req);
     this.updateFields(req);
+    PastEventsCache.get().invalidateView(getViewUrl());
+  }
+
+  @Override
+  @RequirePOST
+  public synchronized void doDoDelete(final StaplerRequest2 req, final StaplerResponse2 rsp) throws IOException, ServletException {
+    final String viewUrl = getViewUrl();
+    super.doDoDelete(req, rsp);
+    PastEventsCache.get().invalidateView(viewUrl);
   }
 
   private void validate(final StaplerRequest2 req) throws Descriptor.FormException {
     final List<String> validSlotDurations = Collections.unmodifiableList(Arrays.asList("00:05:00", "00:10:00", "00:15:00", "00:20:00", "00:30:00", "01:00:00"));
     final Pattern validDateTimePattern = Pattern.compile("(0[0-9]|1[0-9]|2[0-4]):00:00");
+    final List<String> validSummaryThresholds = Collections.unmodifiableList(Arrays.asList("0", "24", "48", "96", "288"));
 
     validateEnum(req, "calendarViewEventsType", CalendarViewEventsType.class);
     validateEnum(req, "calendarViewType", CalendarViewType.class);
     validateEnum(req, "resultsColors", ResultsColors.class);
     validateRange(req, "weekSettingsFirstDay", 0, 7);
+    validateInList(req, "scheduledEventsSummaryThreshold", validSummaryThresholds);
 
     validateInList(req, "weekSlotDuration", validSlotDurations);
     validatePattern(req, "weekMinTime", validDateTimePattern);
@@ -467,6 +521,7 @@ public class CalendarView extends ListView {
     setCalendarViewEventsType(CalendarViewEventsType.valueOf(req.getParameter("calendarViewEventsType")));
     setCalendarViewType(CalendarViewType.valueOf(req.getParameter("calendarViewType")));
     setResultsColors(ResultsColors.valueOf(req.getParameter("resultsColors")));
+    setScheduledEventsSummaryThreshold(Integer.parseInt(req.getParameter("scheduledEventsSummaryThreshold")));
 
     setUseCustomFormats(req.getParameter("useCustomFormats") != null);
     setUseCustomWeekSettings(req.getParameter("useCustomWeekSettings") != null);
@@ -513,14 +568,294 @@ public class CalendarView extends ListView {
     return jobs;
   }
 
+  /**
+   * Returns the jobs of this view, or only those of them that are named in
+   * the <code>job</code> parameters of the request, e.g. to load the events
+   * of jobs that were skipped before.
+   */
+  private List<Job> getJobs(final StaplerRequest2 req) {
+    final String[] fullNames = req.getParameterValues("job");
+    final List<Job> jobs = getJobs();
+    if (fullNames == null) {
+      return jobs;
+    }
+    final List<String> requested = Arrays.asList(fullNames);
+    jobs.removeIf(job -> !requested.contains(job.getFullName()));
+    return jobs;
+  }
+
+  /**
+   * Returns the time the events of a request have to be collected by, which
+   * the <code>deadline</code> parameter can shorten, or <code>0</code> if
+   * there is no limit.
+   */
+  private static long getDeadline(final StaplerRequest2 req) {
+    long budget = EVENTS_DEADLINE;
+    final String deadline = req.getParameter("deadline");
+    if (deadline != null) {
+      try {
+        final long requested = Long.parseLong(deadline);
+        if (requested > 0 && (budget <= 0 || requested < budget)) {
+          budget = requested;
+        }
+      } catch (NumberFormatException e) {
+        LOGGER.debug("Ignoring invalid deadline " + deadline);
+      }
+    }
+    return budget > 0 ? System.currentTimeMillis() + budget : 0;
+  }
+
   public List<CalendarEvent> getEvents() throws ParseException {
-    final StaplerRequest2 req = Stapler.getCurrentRequest2();
+    return getEvents(Stapler.getCurrentRequest2()).events;
+  }
+
+  private CollectedEvents getEvents(final StaplerRequest2 req) throws ParseException {
+    final Calendar start = RequestUtil.getParamAsCalendar(req, "start");
+    final Calendar end = RequestUtil.getParamAsCalendar(req, "end");
+
+    final Moment now = new Moment();
+    final long deadline = getDeadline(req);
+    final CalendarEventService calendarEventService = new CalendarEventService(now, new CronJobService(now), getScheduledEventsSummaryThreshold());
+    calendarEventService.setDeadline(deadline);
+    final List<Job> jobs = getJobs(req);
+    final MomentRange range = range(start, end);
+    final CalendarViewEventsType eventsType = getCalendarViewEventsType();
+    final List<String> jobNames = new ArrayList<>(jobs.size());
+    for (final Job job : jobs) {
+      jobNames.add(job.getFullName());
+    }
+    // users that see the same jobs of this view in the same minute share the events
+    final List<Object> key = Arrays.asList(this, jobNames, eventsType, getScheduledEventsSummaryThreshold(), range.getStart().getTimeInMillis(),
+        range.getEnd().getTimeInMillis(), now.getTimeInMillis() / MINUTE, deadline == 0 ? 0 : deadline - now.getTimeInMillis());
+    return EVENTS_IN_FLIGHT.execute(key, () -> {
+      final List<CalendarEvent> events;
+      if (calendarEventService.isPast(jobs, range)) {
+        events = PastEventsCache.get().getEvents(getViewUrl(), jobs, eventsType, range, () -> calendarEventService.getCalendarEvents(jobs, range, eventsType),
+            calendarEventService::getStartedEvent, () -> calendarEventService.getSkippedJobs().isEmpty());
+      } else {
+        events = Collections.unmodifiableList(calendarEventService.getCalendarEvents(jobs, range, eventsType));
+      }
+      return new CollectedEvents(events, calendarEventService.getSkippedJobs(), calendarEventService.getJobMemo());
+    });
+  }
+
+  /**
+   * The events of a request, the jobs that were skipped while collecting
+   * them, because the deadline had passed, and the memo they were collected
+   * with, which rendering them shares.
+   */
+  private static final class CollectedEvents {
+    private final List<CalendarEvent> events;
+    private final List<String> skippedJobs;
+    private final JobMemo jobMemo;
+
+    /* default */ CollectedEvents(final List<CalendarEvent> events, final List<String> skippedJobs, final JobMemo jobMemo) {
+      this.events = events;
+      this.skippedJobs = Collections.unmodifiableList(skippedJobs);
+      this.jobMemo = jobMemo;
+    }
+  }
+
+  /**
+   * Writes the events of the requested range as JSON, serializing one event
+   * after the other straight to the response.
+   *
+   * <p>
+   * The events are collected on the {@link EventsExecutor}, which answers
+   * with <code>503 Service Unavailable</code> if it is busy, and the request
+   * thread is released in the meantime. If collecting the events takes
+   * longer than the deadline, the events collected so far are written and
+   * marked as truncated, together with the jobs that were skipped.
+   */
+  @GET
+  public void doEvents(final StaplerRequest2 req, final StaplerResponse2 rsp) throws IOException, ParseException {
+    checkPermission(View.READ);
+    final String etag = getEventsETag(req);
+    rsp.setHeader("Cache-Control", "no-cache");
+    if (RequestUtil.isNotModified(req, etag)) {
+      rsp.setHeader("ETag", etag);
+      rsp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
+    final Authentication authentication = Jenkins.getAuthentication2();
+    // the pool threads serve no request, so texts are rendered in its locale
+    final Locale locale = req.getLocale();
+    final AsyncContext async = req.startAsync();
+    async.setTimeout(0);
+    final boolean admitted = EventsExecutor.get().submit(EventsExecutor.getRequester(authentication, req.getRemoteAddr()), () -> {
+      try (ACLContext ignored = ACL.as2(authentication)) {
+        writeEvents(req, rsp, etag, locale);
+      } catch (ParseException e) {
+        sendError(rsp, HttpServletResponse.SC_BAD_REQUEST);
+      } catch (IOException | RuntimeException e) {
+        LOGGER.warn("Unable to write the events of " + getViewName(), e);
+        sendError(rsp, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+      } finally {
+        async.complete();
+      }
+    });
+    if (!admitted) {
+      rsp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+      rsp.setHeader("Retry-After", String.valueOf(EventsExecutor.RETRY_AFTER));
+      async.complete();
+    }
+  }
+
+  private void writeEvents(final StaplerRequest2 req, final StaplerResponse2 rsp, final String etag, final Locale locale) throws IOException, ParseException {
+    final String syncToken = BuildChangeJournal.get().getSequence() + "." + System.currentTimeMillis() + "." + getSyncConfig();
+    final List<String> removedIds = new ArrayList<>();
+    final Moment now = new Moment();
+    final CalendarEventService calendarEventService = new CalendarEventService(now, new CronJobService(now), getScheduledEventsSummaryThreshold());
+    final List<CalendarEvent> changedEvents = getChangedEvents(req, calendarEventService, removedIds);
+    final CollectedEvents collected = changedEvents == null ? getEvents(req) : null;
+    // truncated events must not be confirmed by a later conditional request
+    if (collected == null || collected.skippedJobs.isEmpty()) {
+      rsp.setHeader("ETag", etag);
+    }
+    rsp.setContentType("application/json;charset=UTF-8");
+    // the events are rendered with the memo of the service that collected them
+    final JobMemo jobMemo = collected == null ? calendarEventService.getJobMemo() : collected.jobMemo;
+    final CalendarEventJsonWriter writer = new CalendarEventJsonWriter(rsp.getWriter(), req.getContextPath(), getCalendarViewEventsType(), CalendarEventJsonWriter.SYMBOLS,
+        jobMemo, locale);
+    if (collected != null) {
+      writer.write(collected.events, collected.skippedJobs, syncToken);
+    } else {
+      writer.writeDelta(changedEvents, removedIds, syncToken);
+    }
+  }
+
+  private static void sendError(final StaplerResponse2 rsp, final int status) {
+    if (rsp.isCommitted()) {
+      return;
+    }
+    try {
+      rsp.sendError(status);
+    } catch (IOException e) {
+      LOGGER.debug("Unable to send error " + status, e);
+    }
+  }
+
+  /**
+   * Keeps the response open as a stream of server-sent events, which pushes
+   * the start, progress and end of the builds of this view to the calendar.
+   */
+  @GET
+  public void doEventStream(final StaplerRequest2 req, final StaplerResponse2 rsp) throws IOException {
+    checkPermission(View.READ);
+    rsp.setContentType("text/event-stream;charset=UTF-8");
+    rsp.setHeader("Cache-Control", "no-cache");
+    // keeps reverse proxies from buffering the stream
+    rsp.setHeader("X-Accel-Buffering", "no");
+    BuildEventStream.get().subscribe(this, req.startAsync(), Jenkins.getAuthentication2(), req.getLocale(), req.getContextPath());
+  }
+
+  /**
+   * Collects the events that changed since the sync token the client sent in
+   * the <code>since</code> parameter, or returns <code>null</code> if the
+   * client has to fetch all events, e.g. because it sent no token or the
+   * journal no longer reaches back to its token. A token consists of the
+   * sequence number of the last build change, the time and the configuration
+   * the events were collected with.
+   */
+  private List<CalendarEvent> getChangedEvents(final StaplerRequest2 req, final CalendarEventService calendarEventService, final List<String> removedIds)
+      throws ParseException {
+    final String since = req.getParameter("since");
+    if (since == null) {
+      return null;
+    }
+    final String[] parts = since.split("\\.");
+    if (parts.length != 3 || !parts[2].equals(getSyncConfig())) {
+      return null;
+    }
+    final long sequence;
+    final long timeInMillis;
+    try {
+      sequence = Long.parseLong(parts[0]);
+      timeInMillis = Long.parseLong(parts[1]);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+    final List<BuildChangeJournal.Change> changes = BuildChangeJournal.get().getChangesSince(sequence);
+    if (changes == null) {
+      return null;
+    }
 
     final Calendar start = RequestUtil.getParamAsCalendar(req, "start");
     final Calendar end = RequestUtil.getParamAsCalendar(req, "end");
 
+    return calendarEventService.getChangedEvents(getJobs(), range(start, end), getCalendarViewEventsType(), changes, new Moment(timeInMillis), removedIds);
+  }
+
+  private String getSyncConfig() {
+    return Integer.toHexString(Objects.hash(STARTED, CronTabCache.get().getGeneration(), getCalendarViewEventsType(), getScheduledEventsSummaryThreshold()));
+  }
+
+  /**
+   * Computes the entity tag of the events of the requested range without
+   * collecting them. It combines the fingerprint of the jobs, see
+   * {@link CalendarEventService#getFingerprint(List, MomentRange)}, with the
+   * configuration of the view and the locale of the request.
+   */
+  private String getEventsETag(final StaplerRequest2 req) throws ParseException {
+    final Calendar start = RequestUtil.getParamAsCalendar(req, "start");
+    final Calendar end = RequestUtil.getParamAsCalendar(req, "end");
+
+    final Moment now = new Moment();
+    final long fingerprint = new CalendarEventService(now, new CronJobService(now)).getFingerprint(getJobs(req), range(start, end));
+    final int config = Objects.hash(STARTED, getCalendarViewEventsType(), getScheduledEventsSummaryThreshold(), req.getLocale());
+    return '"' + Long.toHexString(fingerprint) + '-' + Integer.toHexString(config) + '"';
+  }
+
+  /**
+   * Writes the details of a single event as JSON, which the popup of the event
+   * loads once it is opened. The event is identified by the full name of its
+   * job and either the number of its build or the time it is scheduled for.
+   */
+  @GET
+  public void doEventDetail(final StaplerRequest2 req, final StaplerResponse2 rsp) throws IOException {
+    checkPermission(View.READ);
+    final Job job = getJob(req.getParameter("job"));
+    if (job == null) {
+      rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
+      return;
+    }
     final Moment now = new Moment();
-    return new CalendarEventService(now, new CronJobService(now)).getCalendarEvents(getJobs(), range(start, end), getCalendarViewEventsType());
+    final CalendarEventService calendarEventService = new CalendarEventService(now, new CronJobService(now));
+    final CalendarEvent event;
+    try {
+      if (req.getParameter("build") != null) {
+        final Run build = job.getBuildByNumber(Integer.parseInt(req.getParameter("build")));
+        if (build == null) {
+          rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
+          return;
+        }
+        event = calendarEventService.getStartedEvent(job, build);
+      } else if (req.getParameter("start") != null) {
+        event = calendarEventService.getScheduledEvent(job, Long.parseLong(req.getParameter("start")));
+      } else {
+        rsp.sendError(HttpServletResponse.SC_BAD_REQUEST);
+        return;
+      }
+    } catch (NumberFormatException e) {
+      rsp.sendError(HttpServletResponse.SC_BAD_REQUEST);
+      return;
+    }
+    rsp.setContentType("application/json;charset=UTF-8");
+    rsp.setHeader("Cache-Control", "no-cache");
+    new CalendarEventJsonWriter(rsp.getWriter(), req.getContextPath(), getCalendarViewEventsType(), CalendarEventJsonWriter.SYMBOLS,
+        calendarEventService.getJobMemo(), req.getLocale()).writeDetail(event);
+  }
+
+  private Job getJob(final String fullName) {
+    if (fullName == null) {
+      return null;
+    }
+    for (final Job job : getJobs()) {
+      if (fullName.equals(job.getFullName())) {
+        return job;
+      }
+    }
+    return null;
   }
 
   public String jsonEscape(final String text) {
@@ -24,6 +24,7 @@
 package io.jenkins.plugins.view.calendar.event;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import org.kohsuke.accmod.Restricted;
@@ -51,8 +52,12 @@ public interface CalendarEvent {
 
   String getTimestampString();
 
+  String getTimestampString(Locale locale);
+
   String getDurationString();
 
+  String getDurationString(Locale locale);
+
   String getIconClassName();
 
   boolean isInRange(MomentRange range);
@@ -23,31 +23,34 @@
  */
 package io.jenkins.plugins.view.calendar.event;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
-import java.util.GregorianCalendar;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TreeMap;
 
+import org.jvnet.localizer.LocaleProvider;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
 
-import hudson.Util;
 import hudson.model.Job;
-import hudson.model.ParameterDefinition;
 import hudson.model.ParameterValue;
-import hudson.model.ParametersDefinitionProperty;
 import hudson.model.Run;
 import io.jenkins.plugins.view.calendar.CalendarView.CalendarViewEventsType;
 import io.jenkins.plugins.view.calendar.service.CalendarEventService;
+import io.jenkins.plugins.view.calendar.service.JobMemo;
 import io.jenkins.plugins.view.calendar.time.Moment;
 import io.jenkins.plugins.view.calendar.time.MomentRange;
 import io.jenkins.plugins.view.calendar.util.DateUtil;
 
 @Restricted(NoExternalUse.class)
 public class CalendarEventFactory {
+  private static final long MINUTE = 60 * 1000L;
+
   private final transient Moment now;
   private final transient CalendarEventService calendarEventService;
 
@@ -57,36 +60,80 @@ public class CalendarEventFactory {
   }
 
   public ScheduledCalendarEvent createScheduledEvent(final Job job, final Map<String, String> parameters, final Calendar start, final long duration) {
-    return new ScheduledCalendarEventImpl(job, parameters, start, duration);
+    return new ScheduledCalendarEventImpl(job, parameters, new Moment(start), duration);
+  }
+
+  public ScheduledCalendarEvent createScheduledEvent(final Job job, final Map<String, String> parameters, final long startTimeInMillis, final long duration) {
+    return new ScheduledCalendarEventImpl(job, parameters, new Moment(startTimeInMillis), duration);
+  }
+
+  public ScheduledSummaryCalendarEvent createScheduledSummaryEvent(final Job job, final Map<String, String> parameters, final long[] startTimesInMillis,
+      final long duration) {
+    return new ScheduledSummaryCalendarEventImpl(job, parameters, startTimesInMillis, duration);
   }
 
   public StartedCalendarEvent createStartedEvent(final Job job, final Run build) {
     return new StartedCalendarEventImpl(job, build);
   }
 
+  /**
+   * Returns the id of the event of a job starting at the given time, e.g. of
+   * a build that no longer exists.
+   *
+   * @param url               The url of the job
+   * @param startTimeInMillis The start of the event
+   * @return The id of the event
+   */
+  public static String getEventId(final String url, final long startTimeInMillis) {
+    return Objects.requireNonNullElse(url, "").replace("/", "-").toLowerCase(Locale.ENGLISH) + startTimeInMillis;
+  }
+
+  /**
+   * Returns the parameters of the builds a cron line schedules, i.e. the
+   * default values of the job overridden by the values of the line. The
+   * defaults are resolved once per job and request, since they may run
+   * scripts, and all occurrences of a line share one unmodifiable map.
+   */
+  private Map<String, String> getScheduledParameters(final Job job, final Map<String, String> parameters) {
+    final JobMemo jobMemo = calendarEventService.getJobMemo();
+    final Map<String, String> defaults = jobMemo.getDefaultParameters(job);
+    if (parameters == null || parameters.isEmpty()) {
+      return defaults;
+    }
+    return jobMemo.get(job, Arrays.asList("scheduledParameters", parameters), () -> {
+      final Map<String, String> merged = new TreeMap<>(defaults);
+      merged.putAll(parameters);
+      return Collections.unmodifiableMap(merged);
+    });
+  }
+
+  /**
+   * Base of all events, which keeps its start and end as primitive
+   * milliseconds, so that checking whether an event is in range allocates
+   * nothing. The moments are only created once they are asked for.
+   */
   private abstract class CalendarEventImpl implements CalendarEvent {
     protected String id;
     protected Job job;
-    protected Moment start;
-    protected Moment end;
+    protected long startTimeInMillis;
+    protected long endTimeInMillis;
     protected String title;
     protected String url;
     protected long duration;
+    private transient Moment start;
+    private transient Moment end;
     private transient List<StartedCalendarEvent> lastEvents;
-    protected Map<String, String> parameters = new TreeMap<>();
+    protected Map<String, String> parameters;
 
     /* default */ final String initId(final String url, final long startTimeInMillis) {
-      return Objects.requireNonNullElse(url, "").replace("/", "-").toLowerCase(Locale.ENGLISH) + startTimeInMillis;
+      return getEventId(url, startTimeInMillis);
     }
 
-    /* default */ final Moment initEnd(final long timeInMillis, final long duration) {
+    /* default */ final long initEnd(final long timeInMillis, final long duration) {
       // duration needs to be at least 1sec otherwise
       // fullcalendar will not properly display the event
       final long dur = (duration < 1000) ? 1000 : duration;
-      final Calendar end = Calendar.getInstance();
-      end.setTimeInMillis(timeInMillis);
-      end.add(Calendar.SECOND, (int) (dur / 1000));
-      return new Moment(end);
+      return timeInMillis + dur / 1000 * 1000;
     }
 
     @Override
@@ -101,12 +148,18 @@ public class CalendarEventFactory {
 
     @Override
     public Moment getStart() {
+      if (start == null) {
+        start = new Moment(startTimeInMillis);
+      }
       return start;
     }
 
     @Override
     public Moment getEnd() {
-      return this.end;
+      if (end == null) {
+        end = new Moment(endTimeInMillis);
+      }
+      return end;
     }
 
     @Override
@@ -126,25 +179,37 @@ public class CalendarEventFactory {
 
     @Override
     public String getTimestampString() {
-      final long now = new GregorianCalendar().getTimeInMillis();
-      final long difference = Math.abs(now - start.getTimeInMillis());
-      return Util.getPastTimeString(difference);
+      return getTimestampString(LocaleProvider.getLocale());
+    }
+
+    @Override
+    public String getTimestampString(final Locale locale) {
+      final long now = System.currentTimeMillis();
+      final long difference = Math.abs(now - startTimeInMillis);
+      return DateUtil.getPastTimeString(difference, locale);
     }
 
     @Override
     public String getDurationString() {
-      return Util.getTimeSpanString(duration);
+      return getDurationString(LocaleProvider.getLocale());
+    }
+
+    @Override
+    public String getDurationString(final Locale locale) {
+      return DateUtil.getTimeSpanString(duration, locale);
     }
 
     @Override
     public boolean isInRange(final MomentRange range) {
-      return (start.compareTo(range.getStart()) >= 0 && start.compareTo(range.getEnd()) < 0) || (end.compareTo(range.getStart()) > 0 && end.compareTo(range.getEnd()) < 0)
-          || (start.compareTo(range.getStart()) <= 0 && end.compareTo(range.getEnd()) >= 0);
+      final long rangeStart = range.getStart().getTimeInMillis();
+      final long rangeEnd = range.getEnd().getTimeInMillis();
+      return (startTimeInMillis >= rangeStart && startTimeInMillis < rangeEnd) || (endTimeInMillis > rangeStart && endTimeInMillis < rangeEnd)
+          || (startTimeInMillis <= rangeStart && endTimeInMillis >= rangeEnd);
     }
 
     @Override
     public String toString() {
-      return DateUtil.formatDateTime(start.getTime()) + " - " + DateUtil.formatDateTime(end.getTime()) + ": " + getTitle();
+      return DateUtil.formatDateTime(getStart().getTime()) + " - " + DateUtil.formatDateTime(getEnd().getTime()) + ": " + getTitle();
     }
 
     @Override
@@ -162,30 +227,16 @@ public class CalendarEventFactory {
   }
 
   private class ScheduledCalendarEventImpl extends CalendarEventImpl implements ScheduledCalendarEvent {
-    public ScheduledCalendarEventImpl(final Job job, final Map<String, String> parameters, final Calendar start, final long durationInMillis) {
+    public ScheduledCalendarEventImpl(final Job job, final Map<String, String> parameters, final Moment start, final long durationInMillis) {
       super();
       this.job = job;
       this.id = initId(job.getUrl(), start.getTimeInMillis());
       this.title = job.getFullDisplayName();
       this.url = job.getUrl();
       this.duration = durationInMillis;
-      this.start = new Moment(start);
-      this.end = initEnd(start.getTimeInMillis(), durationInMillis);
-      ParametersDefinitionProperty parameterDefinitions = (ParametersDefinitionProperty) this.job.getProperty(ParametersDefinitionProperty.class);
-      if (parameterDefinitions != null) {
-        for (ParameterDefinition parameterDefinition : parameterDefinitions.getParameterDefinitions()) {
-          ParameterValue parameterValue = parameterDefinition.getDefaultParameterValue();
-          if (parameterValue != null) {
-            Object value = parameterValue.getValue();
-            if (value != null) {
-              this.parameters.put(parameterValue.getName(), value.toString());
-            }
-          }
-        }
-      }
-      if (parameters != null) {
-        this.parameters.putAll(parameters);
-      }
+      this.startTimeInMillis = start.getTimeInMillis();
+      this.endTimeInMillis = initEnd(startTimeInMillis, durationInMillis);
+      this.parameters = getScheduledParameters(job, parameters);
     }
 
     @Override
@@ -195,10 +246,71 @@ public class CalendarEventFactory {
 
     @Override
     public String getIconClassName() {
-      return "symbol-weather-" + job.getBuildHealth().getIconClassName();
+      return "symbol-weather-" + calendarEventService.getJobMemo().getBuildHealth(job).getIconClassName();
+    }
+
+    @Override
+    public boolean isSummary() {
+      return false;
+    }
+  }
+
+  private class ScheduledSummaryCalendarEventImpl extends ScheduledCalendarEventImpl implements ScheduledSummaryCalendarEvent {
+    private final List<Long> occurrences;
+    private final long interval;
+
+    public ScheduledSummaryCalendarEventImpl(final Job job, final Map<String, String> parameters, final long[] startTimesInMillis, final long durationInMillis) {
+      super(job, parameters, new Moment(startTimesInMillis[0]), durationInMillis);
+      this.endTimeInMillis = initEnd(startTimesInMillis[startTimesInMillis.length - 1], durationInMillis);
+      final List<Long> offsets = new ArrayList<>(startTimesInMillis.length);
+      for (final long startTimeInMillis : startTimesInMillis) {
+        offsets.add((startTimeInMillis - startTimesInMillis[0]) / MINUTE);
+      }
+      this.occurrences = Collections.unmodifiableList(offsets);
+      this.interval = initInterval(offsets);
+    }
+
+    private long initInterval(final List<Long> offsets) {
+      if (offsets.size() < 2) {
+        return 0;
+      }
+      final long first = offsets.get(1) - offsets.get(0);
+      for (int i = 2; i < offsets.size(); i++) {
+        if (offsets.get(i) - offsets.get(i - 1) != first) {
+          return 0;
+        }
+      }
+      return first;
+    }
+
+    @Override
+    public boolean isSummary() {
+      return true;
+    }
+
+    @Override
+    public int getCount() {
+      return occurrences.size();
+    }
+
+    @Override
+    public long getInterval() {
+      return interval;
+    }
+
+    @Override
+    public List<Long> getOccurrences() {
+      return occurrences;
     }
   }
 
+  /**
+   * Event of a build, which only keeps the build, its state and its times
+   * when created. Everything else is derived from the build once it is
+   * asked for, so that builds that turn out to be out of range cost next to
+   * nothing. Events may be shared by concurrent requests, so the derived
+   * values are immutable and deriving one twice does no harm.
+   */
   private class StartedCalendarEventImpl extends CalendarEventImpl implements StartedCalendarEvent {
     private final Run build;
     private final CalendarEventState state;
@@ -209,28 +321,59 @@ public class CalendarEventFactory {
 
     public StartedCalendarEventImpl(final Job job, final Run build) {
       super();
-      this.id = initId(job.getUrl(), build.getStartTimeInMillis());
       this.job = job;
       this.build = build;
-      this.title = build.getFullDisplayName();
-      this.url = build.getUrl();
-      this.start = new Moment(build.getStartTimeInMillis());
+      this.startTimeInMillis = build.getStartTimeInMillis();
       if (build.isBuilding()) {
-        this.duration = Math.max(MomentRange.duration(start, now), build.getEstimatedDuration());
+        this.duration = Math.max(now.getTimeInMillis() - startTimeInMillis, build.getEstimatedDuration());
         this.state = CalendarEventState.RUNNING;
       } else {
         this.duration = build.getDuration();
         this.state = CalendarEventState.FINISHED;
       }
-      this.end = initEnd(start.getTimeInMillis(), this.duration);
-      for (ParameterValue parameterValue : (List<ParameterValue>) build.getParameterValues()) {
-        if (parameterValue != null) {
-          Object value = parameterValue.getValue();
-          if (value != null) {
-            this.parameters.put(parameterValue.getName(), value.toString());
+      this.endTimeInMillis = initEnd(startTimeInMillis, this.duration);
+    }
+
+    @Override
+    public String getId() {
+      if (id == null) {
+        id = initId(job.getUrl(), startTimeInMillis);
+      }
+      return id;
+    }
+
+    @Override
+    public String getTitle() {
+      if (title == null) {
+        title = build.getFullDisplayName();
+      }
+      return title;
+    }
+
+    @Override
+    public String getUrl() {
+      if (url == null) {
+        url = build.getUrl();
+      }
+      return url;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, String> getParameters() {
+      if (parameters == null) {
+        final Map<String, String> values = new TreeMap<>();
+        for (final ParameterValue parameterValue : (List<ParameterValue>) build.getParameterValues()) {
+          if (parameterValue != null) {
+            final Object value = parameterValue.getValue();
+            if (value != null) {
+              values.put(parameterValue.getName(), value.toString());
+            }
           }
         }
+        parameters = Collections.unmodifiableMap(values);
       }
+      return parameters;
     }
 
     @Override
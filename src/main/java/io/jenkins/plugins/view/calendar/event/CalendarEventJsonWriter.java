@@ -0,0 +1,365 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.event;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.jenkins.ui.symbol.Symbol;
+import org.jenkins.ui.symbol.SymbolRequest;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+import hudson.model.Job;
+import hudson.model.Result;
+import hudson.model.Run;
+import io.jenkins.plugins.view.calendar.CalendarView.CalendarViewEventsType;
+import io.jenkins.plugins.view.calendar.Messages;
+import io.jenkins.plugins.view.calendar.service.JobMemo;
+import io.jenkins.plugins.view.calendar.time.Moment;
+import io.jenkins.plugins.view.calendar.util.DateUtil;
+import io.jenkins.plugins.view.calendar.util.JsonWriter;
+
+/**
+ * Writes calendar events as the JSON the calendar expects, straight to the
+ * response while the events are serialized.
+ *
+ * <p>
+ * Events refer to their icons by key, e.g.
+ * <code>symbol-status-blue icon-md</code>. The markup of every icon is
+ * rendered once and sent in a dictionary after the events:
+ *
+ * <pre>
+ * { "events": [ ... ], "icons": { "symbol-status-blue icon-md": "&lt;svg ..." } }
+ * </pre>
+ */
+@Restricted(NoExternalUse.class)
+public class CalendarEventJsonWriter {
+  private static final int FLUSH_INTERVAL = 100;
+
+  /**
+   * Renders the markup of an icon.
+   */
+  @FunctionalInterface
+  public interface Icons {
+    String render(String iconClassName, String classes);
+  }
+
+  public static final Icons SYMBOLS = (iconClassName, classes) -> Symbol.get(new SymbolRequest.Builder().withRaw(iconClassName).withClasses(classes).build());
+
+  private final transient JsonWriter json;
+  private final transient String rootUrl;
+  private final transient CalendarViewEventsType eventsType;
+  private final transient Icons icons;
+  private final transient JobMemo jobMemo;
+  private final transient Locale locale;
+  @SuppressWarnings("PMD.SimpleDateFormatNeedsLocale")
+  private final transient SimpleDateFormat dateFormat = new SimpleDateFormat(DateUtil.FORMAT_DATETIME);
+  private final transient Map<String, String[]> usedIcons = new LinkedHashMap<>();
+
+  /**
+   * @param out        The writer to write the JSON to
+   * @param rootUrl    The url that urls of events are relative to
+   * @param eventsType The type of events of the view
+   * @param icons      Renders the markup of icons
+   * @param jobMemo    The memo of the request, shared with the service that
+   *                   collected the events
+   * @param locale     The locale of the request, which texts are rendered in
+   *                   even on threads that serve no request
+   */
+  public CalendarEventJsonWriter(final Writer out, final String rootUrl, final CalendarViewEventsType eventsType, final Icons icons, final JobMemo jobMemo,
+      final Locale locale) {
+    this.json = new JsonWriter(out);
+    this.rootUrl = rootUrl;
+    this.eventsType = eventsType;
+    this.icons = icons;
+    this.jobMemo = jobMemo;
+    this.locale = locale;
+  }
+
+  public void write(final List<? extends CalendarEvent> events) throws IOException {
+    write(events, null);
+  }
+
+  /**
+   * Writes all events of a range.
+   *
+   * @param events    The events
+   * @param syncToken The token to fetch the changes since these events with or <code>null</code>
+   * @throws IOException If writing fails
+   */
+  public void write(final List<? extends CalendarEvent> events, final String syncToken) throws IOException {
+    write(events, Collections.emptyList(), syncToken);
+  }
+
+  /**
+   * Writes the events of a range, which are marked as truncated if jobs were
+   * skipped while collecting them:
+   *
+   * <pre>
+   * { "events": [ ... ], "truncated": true, "skippedJobs": [ "fullName", ... ], "syncToken": "...", "icons": { ... } }
+   * </pre>
+   *
+   * @param events      The events
+   * @param skippedJobs The full names of the jobs whose events are missing
+   * @param syncToken   The token to fetch the changes since these events with or <code>null</code>
+   * @throws IOException If writing fails
+   */
+  public void write(final List<? extends CalendarEvent> events, final List<String> skippedJobs, final String syncToken) throws IOException {
+    json.beginObject();
+    writeEvents(events);
+    if (!skippedJobs.isEmpty()) {
+      json.name("truncated").value(true);
+      json.name("skippedJobs").beginArray();
+      for (final String fullName : skippedJobs) {
+        json.value(fullName);
+      }
+      json.endArray();
+    }
+    if (syncToken != null) {
+      json.name("syncToken").value(syncToken);
+    }
+    writeIcons();
+    json.endObject().flush();
+  }
+
+  /**
+   * Writes the events of a range that changed since the client last fetched
+   * them, which replace the events with the same ids, and the ids of the
+   * events that were removed:
+   *
+   * <pre>
+   * { "delta": true, "events": [ ... ], "removed": [ "id", ... ], "syncToken": "...", "icons": { ... } }
+   * </pre>
+   *
+   * @param events     The changed events
+   * @param removedIds The ids of the removed events
+   * @param syncToken  The token to fetch the next changes with
+   * @throws IOException If writing fails
+   */
+  public void writeDelta(final List<? extends CalendarEvent> events, final List<String> removedIds, final String syncToken) throws IOException {
+    json.beginObject();
+    json.name("delta").value(true);
+    writeEvents(events);
+    json.name("removed").beginArray();
+    for (final String id : removedIds) {
+      json.value(id);
+    }
+    json.endArray();
+    json.name("syncToken").value(syncToken);
+    writeIcons();
+    json.endObject().flush();
+  }
+
+  private void writeEvents(final List<? extends CalendarEvent> events) throws IOException {
+    json.name("events").beginArray();
+    int count = 0;
+    for (final CalendarEvent event : events) {
+      writeEvent(event);
+      if (++count % FLUSH_INTERVAL == 0) {
+        json.flush();
+      }
+    }
+    json.endArray();
+  }
+
+  /**
+   * Writes the details the popup of an event shows, which are left out of
+   * the events themselves since only few of them are ever opened: the last
+   * builds of scheduled and running events, the job and the surrounding
+   * builds of finished events.
+   *
+   * @param event The event whose details should be written
+   * @throws IOException If writing fails
+   */
+  public void writeDetail(final CalendarEvent event) throws IOException {
+    json.beginObject();
+    if (event.getState() == CalendarEventState.FINISHED && event instanceof StartedCalendarEvent started) {
+      writeJob(event.getJob());
+      final ScheduledCalendarEvent nextScheduledEvent = started.getNextScheduledEvent(eventsType);
+      if (nextScheduledEvent != null) {
+        json.name("nextScheduledBuild").beginObject();
+        json.name("id").value(nextScheduledEvent.getId());
+        json.name("start").value(format(nextScheduledEvent.getStart()));
+        json.name("end").value(format(nextScheduledEvent.getEnd()));
+        json.endObject();
+      }
+      final StartedCalendarEvent previousEvent = started.getPreviousStartedEvent();
+      if (previousEvent != null) {
+        json.name("previousStartedBuild");
+        writeBuild(previousEvent);
+      }
+      final StartedCalendarEvent nextEvent = started.getNextStartedEvent();
+      if (nextEvent != null) {
+        json.name("nextStartedBuild");
+        writeBuild(nextEvent);
+      }
+    } else {
+      json.name("builds").beginArray();
+      for (final StartedCalendarEvent lastEvent : event.getLastEvents()) {
+        writeBuild(lastEvent);
+      }
+      json.endArray();
+    }
+    writeIcons();
+    json.endObject().flush();
+  }
+
+  private void writeIcons() throws IOException {
+    json.name("icons").beginObject();
+    for (final Map.Entry<String, String[]> icon : usedIcons.entrySet()) {
+      json.name(icon.getKey()).value(icons.render(icon.getValue()[0], icon.getValue()[1]));
+    }
+    json.endObject();
+  }
+
+  private void writeEvent(final CalendarEvent event) throws IOException {
+    final CalendarEventState state = event.getState();
+    json.beginObject();
+    json.name("id").value(event.getId());
+    json.name("title").value(event.getTitle());
+    json.name("url").value(url(event.getUrl()));
+    json.name("icon").value(icon(event.getIconClassName(), "icon-md"));
+    json.name("start").value(format(event.getStart()));
+    json.name("end").value(format(event.getEnd()));
+    json.name("duration").value(event.getDuration());
+    json.name("state").value(state.toString().toLowerCase(Locale.ENGLISH));
+    json.name("className").value(className(event));
+    writeParameters(event.getParameters());
+    json.name("detailUrl").value(detailUrl(event));
+    if (state == CalendarEventState.SCHEDULED || state == CalendarEventState.RUNNING) {
+      if (state == CalendarEventState.SCHEDULED) {
+        json.name("timestampString").value(Messages._CalendarView_Events_StartsIn(event.getTimestampString(locale)).toString(locale));
+        if (event instanceof ScheduledSummaryCalendarEvent summary) {
+          writeSummary(summary);
+        }
+      } else {
+        json.name("timestampString").value(Messages._CalendarView_Events_StartedAgo(event.getTimestampString(locale)).toString(locale));
+      }
+      json.name("durationString").value(Messages._CalendarView_Events_EstimatedDuration(
+          event.getDuration() < 0 ? Messages._CalendarView_Events_UnknownDuration().toString(locale) : event.getDurationString(locale)).toString(locale));
+    }
+    if (state == CalendarEventState.FINISHED) {
+      json.name("timestampString").value(Messages._CalendarView_Events_StartedAgo(event.getTimestampString(locale)).toString(locale));
+      json.name("durationString").value(Messages._CalendarView_Events_Duration(event.getDurationString(locale)).toString(locale));
+    }
+    json.name("allDay").value(false);
+    json.endObject();
+  }
+
+  private void writeParameters(final Map<String, String> parameters) throws IOException {
+    json.name("parameters").beginArray();
+    for (final Map.Entry<String, String> parameter : parameters.entrySet()) {
+      json.beginObject();
+      json.name("name").value(parameter.getKey());
+      json.name("value").value(parameter.getValue());
+      json.endObject();
+    }
+    json.endArray();
+  }
+
+  private void writeSummary(final ScheduledSummaryCalendarEvent summary) throws IOException {
+    json.name("summaryString").value(summary.getInterval() > 0
+        ? Messages._CalendarView_Events_RecurringEvery(summary.getCount(), summary.getInterval()).toString(locale)
+        : Messages._CalendarView_Events_Recurring(summary.getCount()).toString(locale));
+    json.name("summary").beginObject();
+    json.name("count").value(summary.getCount());
+    json.name("interval").value(summary.getInterval());
+    json.name("occurrences").beginArray();
+    for (final long occurrence : summary.getOccurrences()) {
+      json.value(occurrence);
+    }
+    json.endArray();
+    json.endObject();
+  }
+
+  private void writeBuild(final StartedCalendarEvent event) throws IOException {
+    json.beginObject();
+    json.name("id").value(event.getId());
+    json.name("title").value(event.getBuild().getDisplayName());
+    json.name("url").value(url(event.getUrl()));
+    json.name("icon").value(icon(event.getIconClassName(), "icon-sm"));
+    json.name("start").value(format(event.getStart()));
+    json.name("end").value(format(event.getEnd()));
+    json.endObject();
+  }
+
+  private void writeJob(final Job job) throws IOException {
+    json.name("job").beginObject();
+    json.name("title").value(job.getFullDisplayName());
+    json.name("url").value(url(job.getUrl()));
+    json.name("icon").value(icon("symbol-weather-" + jobMemo.getBuildHealth(job).getIconClassName(), "icon-sm"));
+    json.endObject();
+  }
+
+  private static String detailUrl(final CalendarEvent event) {
+    final String job = "eventDetail?job=" + URLEncoder.encode(event.getJob().getFullName(), StandardCharsets.UTF_8);
+    if (event instanceof StartedCalendarEvent started) {
+      return job + "&build=" + started.getBuild().getNumber();
+    }
+    return job + "&start=" + event.getStart().getTimeInMillis();
+  }
+
+  private String icon(final String iconClassName, final String classes) {
+    final String key = iconClassName + " " + classes;
+    usedIcons.computeIfAbsent(key, k -> new String[] { iconClassName, classes });
+    return key;
+  }
+
+  private String className(final CalendarEvent event) {
+    final StringBuilder className = new StringBuilder("event-result-");
+    if (event.getState() == CalendarEventState.FINISHED && event instanceof StartedCalendarEvent started) {
+      className.append(result(started.getBuild().getResult()));
+    }
+    if (event.getState() == CalendarEventState.RUNNING) {
+      final Run lastCompletedBuild = jobMemo.getLastCompletedBuild(event.getJob());
+      className.append(result(lastCompletedBuild == null ? null : lastCompletedBuild.getResult()));
+    }
+    className.append(" event-state-").append(event.getState().toString().toLowerCase(Locale.ENGLISH));
+    if (event instanceof ScheduledCalendarEvent scheduled && scheduled.isSummary()) {
+      className.append(" event-summary");
+    }
+    return className.append(" event-id-").append(event.getId()).toString();
+  }
+
+  private static String result(final Result result) {
+    return result == null ? "" : result.toString().toLowerCase(Locale.ENGLISH);
+  }
+
+  private String url(final String url) {
+    return rootUrl + "/" + url;
+  }
+
+  private String format(final Moment moment) {
+    return dateFormat.format(moment.getTime());
+  }
+}
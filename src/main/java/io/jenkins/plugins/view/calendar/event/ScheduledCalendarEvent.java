@@ -28,4 +28,9 @@ import org.kohsuke.accmod.restrictions.NoExternalUse;
 
 @Restricted(NoExternalUse.class)
 public interface ScheduledCalendarEvent extends CalendarEvent {
+  /**
+   * @return <code>true</code> if this event summarizes several scheduled builds
+   * @see ScheduledSummaryCalendarEvent
+   */
+  boolean isSummary();
 }
@@ -0,0 +1,149 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import jenkins.util.SystemProperties;
+
+/**
+ * Remembers the builds that were started, finished or deleted lately, so
+ * that a calendar which is kept open only needs to fetch the events that
+ * changed since it was last updated.
+ *
+ * <p>
+ * Every change gets a sequence number. The journal keeps the last
+ * {@link #CAPACITY} changes only. Clients whose last update is older than
+ * that need to fetch all events again.
+ */
+@Restricted(NoExternalUse.class)
+public final class BuildChangeJournal {
+  public static final int CAPACITY = SystemProperties.getInteger(BuildChangeJournal.class.getName() + ".capacity", 10_000);
+
+  private static final BuildChangeJournal INSTANCE = new BuildChangeJournal(CAPACITY);
+
+  private final Change[] changes;
+  private long sequence;
+
+  /* default */ BuildChangeJournal(final int capacity) {
+    this.changes = new Change[capacity];
+  }
+
+  public static BuildChangeJournal get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the sequence number of the last change.
+   *
+   * @return The sequence number of the last change or 0 if nothing changed yet
+   */
+  public synchronized long getSequence() {
+    return sequence;
+  }
+
+  /**
+   * Returns all changes after the given sequence number, oldest first, or
+   * <code>null</code> if some of them have already been dropped from the
+   * journal.
+   *
+   * @param since The sequence number of the last change the client knows
+   * @return The changes since then or <code>null</code>
+   */
+  public synchronized List<Change> getChangesSince(final long since) {
+    if (since < 0 || since > sequence || sequence - since > changes.length) {
+      return null;
+    }
+    final List<Change> result = new ArrayList<>((int) (sequence - since));
+    for (long i = since + 1; i <= sequence; i++) {
+      result.add(changes[(int) (i % changes.length)]);
+    }
+    return result;
+  }
+
+  /* default */ synchronized void add(final Run build, final boolean deleted) {
+    sequence++;
+    changes[(int) (sequence % changes.length)] = new Change(build.getParent().getFullName(), build.getNumber(), build.getStartTimeInMillis(), deleted);
+  }
+
+  /**
+   * A build that was started, finished or deleted.
+   */
+  public static final class Change {
+    private final String fullName;
+    private final int number;
+    private final long startTimeInMillis;
+    private final boolean deleted;
+
+    /* default */ Change(final String fullName, final int number, final long startTimeInMillis, final boolean deleted) {
+      this.fullName = fullName;
+      this.number = number;
+      this.startTimeInMillis = startTimeInMillis;
+      this.deleted = deleted;
+    }
+
+    public String getFullName() {
+      return fullName;
+    }
+
+    public int getNumber() {
+      return number;
+    }
+
+    public long getStartTimeInMillis() {
+      return startTimeInMillis;
+    }
+
+    public boolean isDeleted() {
+      return deleted;
+    }
+  }
+
+  @Extension
+  @Restricted(NoExternalUse.class)
+  public static class BuildChangeJournalRunListener extends RunListener<Run<?, ?>> {
+    @Override
+    public void onStarted(final Run<?, ?> build, final TaskListener listener) {
+      BuildChangeJournal.get().add(build, false);
+    }
+
+    @Override
+    public void onFinalized(final Run<?, ?> build) {
+      BuildChangeJournal.get().add(build, false);
+    }
+
+    @Override
+    public void onDeleted(final Run<?, ?> build) {
+      BuildChangeJournal.get().add(build, true);
+    }
+  }
+}
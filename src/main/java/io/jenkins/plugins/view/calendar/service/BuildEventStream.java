@@ -0,0 +1,406 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.apache.log4j.Logger;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.springframework.security.core.Authentication;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.TopLevelItem;
+import hudson.model.listeners.RunListener;
+import io.jenkins.plugins.view.calendar.CalendarView;
+import io.jenkins.plugins.view.calendar.CalendarView.CalendarViewEventsType;
+import io.jenkins.plugins.view.calendar.event.CalendarEventFactory;
+import io.jenkins.plugins.view.calendar.event.CalendarEventJsonWriter;
+import io.jenkins.plugins.view.calendar.time.Moment;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jenkins.util.SystemProperties;
+
+/**
+ * Pushes the start, progress and end of builds to open calendars as
+ * server-sent events, so that calendars are kept up to date without
+ * fetching their events again.
+ *
+ * <p>
+ * Every view with open calendars gets a channel with a bounded queue of
+ * pending messages, which is filled by a {@link RunListener} and drained on
+ * a thread of its own. Open calendars hold an asynchronous response each and
+ * no thread while they are idle. Responses are written without blocking, and
+ * calendars whose response is still busy with an earlier message when the
+ * next one is sent are dropped, so that slow clients cannot hold up the
+ * others; they reconnect and fetch their events again. If a queue overflows,
+ * its calendars are told to fetch their events again instead. Running builds
+ * are pushed again every {@link #HEARTBEAT_INTERVAL} seconds, which also
+ * drops calendars that have been closed in the meantime.
+ *
+ * <p>
+ * Messages look like this:
+ *
+ * <pre>
+ * event: finish
+ * data: { "events": [ ... ], "icons": { ... } }
+ * </pre>
+ */
+@Restricted(NoExternalUse.class)
+public final class BuildEventStream {
+  public static final int QUEUE_CAPACITY = SystemProperties.getInteger(BuildEventStream.class.getName() + ".queueCapacity", 256);
+  public static final long HEARTBEAT_INTERVAL = SystemProperties.getLong(BuildEventStream.class.getName() + ".heartbeatInterval", 30L);
+
+  private static final Logger LOGGER = Logger.getLogger(BuildEventStream.class);
+  private static final BuildEventStream INSTANCE = new BuildEventStream(null, QUEUE_CAPACITY);
+  private static final byte[] RETRY = "retry: 10000\n\n".getBytes(StandardCharsets.UTF_8);
+
+  private final ScheduledExecutorService executor;
+  private final int queueCapacity;
+  private final Map<CalendarView, Channel> channels = new ConcurrentHashMap<>();
+  private final AtomicBoolean heartbeatScheduled = new AtomicBoolean();
+
+  /* default */ BuildEventStream(final ScheduledExecutorService executor, final int queueCapacity) {
+    this.executor = executor;
+    this.queueCapacity = queueCapacity;
+  }
+
+  public static BuildEventStream get() {
+    return INSTANCE;
+  }
+
+  private ScheduledExecutorService getExecutor() {
+    return executor == null ? Holder.EXECUTOR : executor;
+  }
+
+  /**
+   * Keeps a response open and pushes the builds of the jobs of a view to it
+   * from now on.
+   *
+   * @param view    The view
+   * @param async   The asynchronous response
+   * @param auth    The user the builds are pushed to
+   * @param locale  The locale the builds are rendered in
+   * @param rootUrl The root url of Jenkins
+   * @throws IOException If the response cannot be written
+   */
+  public void subscribe(final CalendarView view, final AsyncContext async, final Authentication auth, final Locale locale, final String rootUrl)
+      throws IOException {
+    async.setTimeout(0);
+    final ServletOutputStream out = async.getResponse().getOutputStream();
+    final Subscriber subscriber = new Subscriber(async, out, auth, locale);
+    final Channel channel = channels.compute(view, (v, c) -> {
+      final Channel result = c == null ? new Channel(v, rootUrl, queueCapacity) : c;
+      result.subscribers.add(subscriber);
+      return result;
+    });
+    subscriber.channel = channel;
+    async.addListener(new AsyncListener() {
+      @Override
+      public void onComplete(final AsyncEvent event) {
+        unsubscribe(channel, subscriber);
+      }
+
+      @Override
+      public void onTimeout(final AsyncEvent event) {
+        unsubscribe(channel, subscriber);
+      }
+
+      @Override
+      public void onError(final AsyncEvent event) {
+        unsubscribe(channel, subscriber);
+      }
+
+      @Override
+      public void onStartAsync(final AsyncEvent event) {
+        // nothing to do
+      }
+    });
+    out.setWriteListener(subscriber);
+    if (heartbeatScheduled.compareAndSet(false, true)) {
+      getExecutor().scheduleWithFixedDelay(this::heartbeat, HEARTBEAT_INTERVAL, HEARTBEAT_INTERVAL, TimeUnit.SECONDS);
+    }
+  }
+
+  /* default */ int getSubscriberCount() {
+    int count = 0;
+    for (final Channel channel : channels.values()) {
+      count += channel.subscribers.size();
+    }
+    return count;
+  }
+
+  private void unsubscribe(final Channel channel, final Subscriber subscriber) {
+    channels.computeIfPresent(channel.view, (v, c) -> {
+      c.subscribers.remove(subscriber);
+      return c.subscribers.isEmpty() ? null : c;
+    });
+  }
+
+  private void drop(final Channel channel, final Subscriber subscriber) {
+    unsubscribe(channel, subscriber);
+    try {
+      subscriber.async.complete();
+    } catch (IllegalStateException e) {
+      // already completed
+    }
+  }
+
+  /* default */ void publish(final Run build, final String type) {
+    final Job job = build.getParent();
+    if (!(job instanceof TopLevelItem item)) {
+      return;
+    }
+    for (final Channel channel : channels.values()) {
+      if (channel.view.getCalendarViewEventsType() != CalendarViewEventsType.POLLINGS && channel.view.contains(item)) {
+        if ("start".equals(type)) {
+          channel.running.add(build);
+        } else if (!"progress".equals(type)) {
+          channel.running.remove(build);
+        }
+        channel.offer(new Message(type, build));
+        schedule(channel);
+      }
+    }
+  }
+
+  private void schedule(final Channel channel) {
+    if (channel.scheduled.compareAndSet(false, true)) {
+      getExecutor().execute(() -> dispatch(channel));
+    }
+  }
+
+  private void dispatch(final Channel channel) {
+    channel.scheduled.set(false);
+    if (channel.overflow.getAndSet(false)) {
+      channel.queue.clear();
+      send(channel, null, locale -> "event: resync\ndata: {}\n\n");
+    }
+    Message message;
+    while ((message = channel.queue.poll()) != null) {
+      final Message current = message;
+      try {
+        send(channel, message.build.getParent(), locale -> render(channel, current, locale));
+      } catch (RuntimeException e) {
+        LOGGER.warn("Unable to push " + message.build, e);
+      }
+    }
+  }
+
+  /* default */ void heartbeat() {
+    for (final Channel channel : channels.values()) {
+      for (final Run build : channel.running) {
+        if (build.isBuilding()) {
+          channel.offer(new Message("progress", build));
+        } else {
+          channel.running.remove(build);
+        }
+      }
+      if (channel.running.isEmpty()) {
+        send(channel, null, locale -> ":\n\n");
+      } else {
+        dispatch(channel);
+      }
+    }
+  }
+
+  private static String render(final Channel channel, final Message message, final Locale locale) {
+    final Job job = message.build.getParent();
+    if ("delete".equals(message.type)) {
+      return "event: delete\ndata: {\"removed\":[\"" + CalendarEventFactory.getEventId(job.getUrl(), message.build.getStartTimeInMillis()) + "\"]}\n\n";
+    }
+    final Moment now = new Moment();
+    final CalendarEventService calendarEventService = new CalendarEventService(now, new CronJobService(now));
+    final StringWriter out = new StringWriter();
+    try {
+      new CalendarEventJsonWriter(out, channel.rootUrl, channel.view.getCalendarViewEventsType(), CalendarEventJsonWriter.SYMBOLS, calendarEventService.getJobMemo(),
+          locale).write(List.of(calendarEventService.getStartedEvent(job, message.build)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return "event: " + message.type + "\ndata: " + out + "\n\n";
+  }
+
+  /**
+   * Writes a message to the subscribers that may see the builds of a job,
+   * rendered once per locale, and drops subscribers whose response is not
+   * ready for it.
+   */
+  private void send(final Channel channel, final Job job, final Function<Locale, String> renderer) {
+    final Map<Locale, byte[]> rendered = new HashMap<>();
+    for (final Subscriber subscriber : channel.subscribers) {
+      if (job != null && !job.getACL().hasPermission2(subscriber.auth, Item.READ)) {
+        continue;
+      }
+      final byte[] bytes = rendered.computeIfAbsent(subscriber.locale, locale -> renderer.apply(locale).getBytes(StandardCharsets.UTF_8));
+      if (!subscriber.write(bytes)) {
+        drop(channel, subscriber);
+      }
+    }
+  }
+
+  private static final class Channel {
+    private final CalendarView view;
+    private final String rootUrl;
+    private final BlockingQueue<Message> queue;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Run> running = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicBoolean overflow = new AtomicBoolean();
+
+    /* default */ Channel(final CalendarView view, final String rootUrl, final int queueCapacity) {
+      this.view = view;
+      this.rootUrl = rootUrl;
+      this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /* default */ void offer(final Message message) {
+      if (!queue.offer(message)) {
+        overflow.set(true);
+      }
+    }
+  }
+
+  /**
+   * A calendar, which writes to its response without blocking. The
+   * container calls it once the response can be written to, which is when
+   * the calendar is told how long to wait before it reconnects; until then
+   * messages are skipped.
+   */
+  private final class Subscriber implements WriteListener {
+    private final AsyncContext async;
+    private final ServletOutputStream out;
+    private final Authentication auth;
+    private final Locale locale;
+    private Channel channel;
+    private boolean started;
+
+    /* default */ Subscriber(final AsyncContext async, final ServletOutputStream out, final Authentication auth, final Locale locale) {
+      this.async = async;
+      this.out = out;
+      this.auth = auth;
+      this.locale = locale;
+    }
+
+    @Override
+    public synchronized void onWritePossible() throws IOException {
+      if (!started) {
+        started = true;
+        out.write(RETRY);
+      }
+      if (out.isReady()) {
+        out.flush();
+      }
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      drop(channel, this);
+    }
+
+    /**
+     * Writes a message unless the response is still busy with an earlier
+     * one.
+     *
+     * @return <code>false</code> if the response is busy or closed
+     */
+    /* default */ synchronized boolean write(final byte[] bytes) {
+      if (!started) {
+        return true;
+      }
+      try {
+        if (!out.isReady()) {
+          return false;
+        }
+        out.write(bytes);
+        if (out.isReady()) {
+          out.flush();
+        }
+        return true;
+      } catch (IOException | IllegalStateException e) {
+        return false;
+      }
+    }
+  }
+
+  private static final class Message {
+    private final String type;
+    private final Run build;
+
+    /* default */ Message(final String type, final Run build) {
+      this.type = type;
+      this.build = build;
+    }
+  }
+
+  private static final class Holder {
+    /* default */ static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "CalendarView event stream");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Extension
+  @Restricted(NoExternalUse.class)
+  public static class BuildEventStreamRunListener extends RunListener<Run<?, ?>> {
+    @Override
+    public void onStarted(final Run<?, ?> build, final TaskListener listener) {
+      BuildEventStream.get().publish(build, "start");
+    }
+
+    @Override
+    public void onFinalized(final Run<?, ?> build) {
+      BuildEventStream.get().publish(build, "finish");
+    }
+
+    @Override
+    public void onDeleted(final Run<?, ?> build) {
+      BuildEventStream.get().publish(build, "delete");
+    }
+  }
+}
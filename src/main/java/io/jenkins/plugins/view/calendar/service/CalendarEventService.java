@@ -26,16 +26,33 @@ package io.jenkins.plugins.view.calendar.service;
 import static io.jenkins.plugins.view.calendar.time.MomentRange.isValidRange;
 import static io.jenkins.plugins.view.calendar.time.MomentRange.range;
 
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.Logger;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
 
+import hudson.model.Computer;
+import hudson.model.Executor;
 import hudson.model.Job;
+import hudson.model.Queue;
 import hudson.model.Result;
 import hudson.model.Run;
 import io.jenkins.plugins.view.calendar.CalendarView.CalendarViewEventsType;
@@ -44,21 +61,76 @@ import io.jenkins.plugins.view.calendar.event.CalendarEventComparator;
 import io.jenkins.plugins.view.calendar.event.CalendarEventFactory;
 import io.jenkins.plugins.view.calendar.event.CalendarEventState;
 import io.jenkins.plugins.view.calendar.event.ScheduledCalendarEvent;
+import io.jenkins.plugins.view.calendar.event.ScheduledSummaryCalendarEvent;
 import io.jenkins.plugins.view.calendar.event.StartedCalendarEvent;
 import io.jenkins.plugins.view.calendar.time.Moment;
 import io.jenkins.plugins.view.calendar.time.MomentRange;
+import io.jenkins.plugins.view.calendar.timeline.BuildIntervalIndex;
+import jenkins.model.Jenkins;
 
 @Restricted(NoExternalUse.class)
 public class CalendarEventService {
+  private static final long MINUTE = 60 * 1000L;
+  private static final long HOUR = 60 * MINUTE;
 
   private final transient CronJobService cronJobService;
   private final transient Moment now;
   private final transient CalendarEventFactory calendarEventFactory;
+  private final transient int summaryThreshold;
+  private final transient JobMemo jobMemo;
+  private final transient Set<String> skippedJobs = ConcurrentHashMap.newKeySet();
+  private transient long deadlineInMillis;
 
   public CalendarEventService(final Moment now, final CronJobService cronJobService) {
+    this(now, cronJobService, 0);
+  }
+
+  /**
+   * @param now              The current time
+   * @param cronJobService   The service providing the cron tabs of jobs
+   * @param summaryThreshold If a cron tab schedules more builds of a job than
+   *                         this on one day, the builds of that day are
+   *                         collapsed into a single
+   *                         {@link ScheduledSummaryCalendarEvent}. Disabled
+   *                         if <code>0</code>.
+   */
+  public CalendarEventService(final Moment now, final CronJobService cronJobService, final int summaryThreshold) {
     this.now = now;
+    this.jobMemo = cronJobService.getJobMemo();
     this.cronJobService = cronJobService;
     this.calendarEventFactory = new CalendarEventFactory(now, this);
+    this.summaryThreshold = summaryThreshold;
+  }
+
+  /**
+   * Sets the time by which the events have to be collected. Once it has
+   * passed, the remaining jobs are skipped, so that the events collected so
+   * far can be returned instead of keeping the caller waiting for slow jobs.
+   *
+   * @param deadlineInMillis The deadline or <code>0</code> for none
+   */
+  public void setDeadline(final long deadlineInMillis) {
+    this.deadlineInMillis = deadlineInMillis;
+  }
+
+  /**
+   * @return The full names of the jobs whose events were skipped, because
+   *         the deadline had passed before they were collected
+   */
+  public List<String> getSkippedJobs() {
+    return new ArrayList<>(new TreeSet<>(skippedJobs));
+  }
+
+  public JobMemo getJobMemo() {
+    return jobMemo;
+  }
+
+  private boolean isSkipped(final Job job) {
+    if (deadlineInMillis <= 0 || System.currentTimeMillis() < deadlineInMillis) {
+      return false;
+    }
+    skippedJobs.add(job.getFullName());
+    return true;
   }
 
   /**
@@ -111,60 +183,34 @@ public class CalendarEventService {
   }
 
   public List<ScheduledCalendarEvent> getScheduledEvents(final List<? extends Job> jobs, final ScheduledEventCollector collector, final CalendarViewEventsType eventsType) {
-    for (final Job job : jobs) {
+    return JobCollector.collect(jobs, (job, events) -> {
+      if (isSkipped(job)) {
+        return;
+      }
       if (job.isBuildable()) {
-        final long estimatedDuration = job.getEstimatedDuration();
+        final long estimatedDuration = jobMemo.getEstimatedDuration(job);
         final List<CronWrapper<?>> cronTabs = cronJobService.getCronTabs(job, eventsType);
         for (final CronWrapper<?> cronTab : cronTabs) {
           try{
-          collector.collectEvents(job, cronTab, estimatedDuration);
+          collector.collectEvents(job, cronTab, estimatedDuration, events);
           } catch(hudson.scheduler.RareOrImpossibleDateException e) {
             Logger.getLogger(this.getClass()).info(String.format("Ignoring RareOrImpossibleDateException for job '%s'", job.getName()));
           }
         }
       }
-    }
-    return collector.getEvents();
+    });
   }
 
   private abstract class ScheduledEventCollector {
-    private transient final List<ScheduledCalendarEvent> events = new ArrayList<>();
     protected transient final MomentRange searchRange;
-    private transient final MomentRange inclusionRange;
+    protected transient final MomentRange inclusionRange;
 
     public ScheduledEventCollector(final MomentRange searchRange, final MomentRange inclusionRange) {
       this.searchRange = searchRange;
       this.inclusionRange = inclusionRange;
     }
 
-    public void collectEvents(final Job job, final CronWrapper<?> cronTab, final long estimatedDuration) {
-      long timeInMillis = searchStart();
-      do {
-        final Calendar next = nextRun(cronTab, timeInMillis);
-        if (next == null || searchRange.getStart().isAfter(next) || searchRange.getEnd().isBefore(next)) {
-          break;
-        }
-        next.set(Calendar.SECOND, 0);
-        next.set(Calendar.MILLISECOND, 0);
-        @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
-        final ScheduledCalendarEvent event = calendarEventFactory.createScheduledEvent(job, cronTab.getParameters(), next, estimatedDuration);
-        if (!event.isInRange(inclusionRange)) {
-          break;
-        }
-        events.add(event);
-        timeInMillis = next.getTimeInMillis() + searchOffset();
-      } while (true);
-    }
-
-    protected abstract Calendar nextRun(CronWrapper<?> cronTab, long timeInMillis);
-
-    protected abstract long searchStart();
-
-    protected abstract int searchOffset();
-
-    public List<ScheduledCalendarEvent> getEvents() {
-      return events;
-    }
+    public abstract void collectEvents(Job job, CronWrapper<?> cronTab, long estimatedDuration, List<ScheduledCalendarEvent> events);
   }
 
   private class ForwardScheduledEventCollector extends ScheduledEventCollector {
@@ -173,18 +219,80 @@ public class CalendarEventService {
     }
 
     @Override
-    protected Calendar nextRun(final CronWrapper<?> cronTab, final long timeInMillis) {
-      return cronTab.ceil(timeInMillis);
+    public void collectEvents(final Job job, final CronWrapper<?> cronTab, final long estimatedDuration, final List<ScheduledCalendarEvent> events) {
+      if (summaryThreshold > 0) {
+        collectSummarizedEvents(job, cronTab, estimatedDuration, events);
+        return;
+      }
+      cronTab.forEachOccurrence(searchRange.getStart().getTimeInMillis(), searchRange.getEnd().getTimeInMillis(), timeInMillis -> {
+        final ScheduledCalendarEvent event = calendarEventFactory.createScheduledEvent(job, cronTab.getParameters(), timeInMillis, estimatedDuration);
+        if (!event.isInRange(inclusionRange)) {
+          return false;
+        }
+        events.add(event);
+        return true;
+      });
     }
 
-    @Override
-    protected long searchStart() {
-      return searchRange.getStart().getTimeInMillis();
+    private void collectSummarizedEvents(final Job job, final CronWrapper<?> cronTab, final long estimatedDuration, final List<ScheduledCalendarEvent> events) {
+      // searchRange never starts before inclusionRange, so an occurrence is
+      // in range as long as it starts before the end of inclusionRange
+      final long inclusionEnd = inclusionRange.getEnd().getTimeInMillis();
+      final DailyOccurrences occurrences = new DailyOccurrences(job, cronTab.getParameters(), estimatedDuration, events);
+      cronTab.forEachOccurrence(searchRange.getStart().getTimeInMillis(), searchRange.getEnd().getTimeInMillis(), timeInMillis -> {
+        if (timeInMillis >= inclusionEnd) {
+          return false;
+        }
+        occurrences.add(timeInMillis);
+        return true;
+      });
+      occurrences.flush();
     }
+  }
 
-    @Override
-    protected int searchOffset() {
-      return 1000 * 60;
+  /**
+   * Buffers the occurrences of a cron tab for one day at a time, and adds them
+   * either as single events or, if there are more than the summary threshold,
+   * as one summary event for the whole day.
+   */
+  private final class DailyOccurrences {
+    private final Job job;
+    private final Map<String, String> parameters;
+    private final long estimatedDuration;
+    private final List<ScheduledCalendarEvent> events;
+    private final ZoneId zone = TimeZone.getDefault().toZoneId();
+
+    private long[] startTimes = new long[32];
+    private int count;
+    private long nextDayStart = Long.MIN_VALUE;
+
+    /* default */ DailyOccurrences(final Job job, final Map<String, String> parameters, final long estimatedDuration, final List<ScheduledCalendarEvent> events) {
+      this.job = job;
+      this.parameters = parameters;
+      this.estimatedDuration = estimatedDuration;
+      this.events = events;
+    }
+
+    /* default */ void add(final long timeInMillis) {
+      if (timeInMillis >= nextDayStart) {
+        flush();
+        nextDayStart = Instant.ofEpochMilli(timeInMillis).atZone(zone).toLocalDate().plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+      }
+      if (count == startTimes.length) {
+        startTimes = Arrays.copyOf(startTimes, count * 2);
+      }
+      startTimes[count++] = timeInMillis;
+    }
+
+    /* default */ void flush() {
+      if (count > summaryThreshold) {
+        events.add(calendarEventFactory.createScheduledSummaryEvent(job, parameters, Arrays.copyOf(startTimes, count), estimatedDuration));
+      } else {
+        for (int i = 0; i < count; i++) {
+          events.add(calendarEventFactory.createScheduledEvent(job, parameters, startTimes[i], estimatedDuration));
+        }
+      }
+      count = 0;
     }
   }
 
@@ -194,19 +302,202 @@ public class CalendarEventService {
     }
 
     @Override
-    protected Calendar nextRun(final CronWrapper<?> cronTab, final long timeInMillis) {
-      return cronTab.floor(timeInMillis);
+    public void collectEvents(final Job job, final CronWrapper<?> cronTab, final long estimatedDuration, final List<ScheduledCalendarEvent> events) {
+      long timeInMillis = searchRange.getEnd().getTimeInMillis();
+      do {
+        final Calendar previous = cronTab.floor(timeInMillis);
+        if (previous == null || searchRange.getStart().isAfter(previous) || searchRange.getEnd().isBefore(previous)) {
+          break;
+        }
+        previous.set(Calendar.SECOND, 0);
+        previous.set(Calendar.MILLISECOND, 0);
+        @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+        final ScheduledCalendarEvent event = calendarEventFactory.createScheduledEvent(job, cronTab.getParameters(), previous, estimatedDuration);
+        if (!event.isInRange(inclusionRange)) {
+          break;
+        }
+        events.add(event);
+        timeInMillis = previous.getTimeInMillis() - 1000 * 60;
+      } while (true);
     }
+  }
 
-    @Override
-    protected long searchStart() {
-      return searchRange.getEnd().getTimeInMillis();
+  /**
+   * Checks whether a range lies completely in the past, i.e. it ends before
+   * now and before the earliest running build of the jobs started. Such a
+   * range only contains finished builds and its events do not change as long
+   * as no builds are deleted.
+   *
+   * @param jobs  The jobs
+   * @param range The range
+   * @return <code>true</code> if the range lies completely in the past
+   */
+  public boolean isPast(final List<? extends Job> jobs, final MomentRange range) {
+    return isPast(jobs, range, getRunningBuilds());
+  }
+
+  private boolean isPast(final List<? extends Job> jobs, final MomentRange range, final Map<Job, Set<Run>> runningBuilds) {
+    if (!now.isAfter(range.getEnd())) {
+      return false;
+    }
+    if (runningBuilds == null) {
+      return false;
+    }
+    for (final Job job : jobs) {
+      for (final Run build : runningBuilds.getOrDefault(job, Collections.emptySet())) {
+        if (build.getStartTimeInMillis() < range.getEnd().getTimeInMillis()) {
+          return false;
+        }
+      }
     }
+    return true;
+  }
 
-    @Override
-    protected int searchOffset() {
-      return -1000 * 60;
+  /**
+   * Computes a fingerprint of the state the events of a range are collected
+   * from: the jobs, their last and running builds, their configuration and
+   * the current time. The events of the range do not change as long as the
+   * fingerprint does not, so it can be computed instead of the events to tell
+   * whether a client is up to date.
+   *
+   * <p>
+   * The current time is taken into account by the minute, or by the hour if
+   * the range lies in the past and only the relative start times of its
+   * builds depend on it.
+   *
+   * @param jobs  The jobs
+   * @param range The range
+   * @return The fingerprint
+   */
+  public long getFingerprint(final List<? extends Job> jobs, final MomentRange range) {
+    final Map<Job, Set<Run>> runningBuilds = getRunningBuilds();
+    long fingerprint = mix(range.getStart().getTimeInMillis(), range.getEnd().getTimeInMillis());
+    fingerprint = mix(fingerprint, CronTabCache.get().getGeneration());
+    for (final Job job : jobs) {
+      fingerprint = mix(fingerprint, job.getFullName().hashCode());
+      final Run lastBuild = job.getLastBuild();
+      fingerprint = mix(fingerprint, lastBuild == null ? -1 : lastBuild.getNumber());
+      if (runningBuilds == null) {
+        fingerprint = mix(fingerprint, job.isBuilding() ? 1 : 0);
+      } else {
+        for (final Run build : runningBuilds.getOrDefault(job, Collections.emptySet())) {
+          fingerprint = mix(fingerprint, build.getNumber());
+        }
+      }
+      fingerprint = mix(fingerprint, 0);
     }
+    final long precision = isPast(jobs, range, runningBuilds) ? HOUR : MINUTE;
+    return mix(fingerprint, now.getTimeInMillis() / precision);
+  }
+
+  private static long mix(final long fingerprint, final long value) {
+    return (fingerprint ^ value) * 0x100000001b3L;
+  }
+
+  /**
+   * Collects the events of a range that changed since a client last fetched
+   * them: the events of builds that were started or finished since then and
+   * all running events, whose duration keeps growing. The ids of events of
+   * deleted builds and of scheduled builds whose time has come are added to
+   * the removed ids. If scheduled events are summarized, a summary is removed
+   * once its first occurrence has come, and the rest of its day is sent again.
+   *
+   * @param jobs           The jobs
+   * @param inclusionRange The range the client shows
+   * @param eventsType     The type of events the client shows
+   * @param changes        The changes of builds since the client last fetched the events
+   * @param since          The time the client last fetched the events
+   * @param removedIds     Receives the ids of removed events
+   * @return The changed events
+   */
+  public List<CalendarEvent> getChangedEvents(final List<? extends Job> jobs, final MomentRange inclusionRange, final CalendarViewEventsType eventsType,
+      final List<BuildChangeJournal.Change> changes, final Moment since, final List<String> removedIds) {
+    final Map<String, CalendarEvent> events = new LinkedHashMap<>();
+    if (eventsType != CalendarViewEventsType.POLLINGS) {
+      final Map<String, Job> jobsByName = new HashMap<>();
+      for (final Job job : jobs) {
+        jobsByName.put(job.getFullName(), job);
+      }
+      for (final BuildChangeJournal.Change change : changes) {
+        final Job job = jobsByName.get(change.getFullName());
+        if (job == null) {
+          continue;
+        }
+        final Run build = change.isDeleted() ? null : job.getBuildByNumber(change.getNumber());
+        if (build == null) {
+          final String id = CalendarEventFactory.getEventId(job.getUrl(), change.getStartTimeInMillis());
+          events.remove(id);
+          removedIds.add(id);
+          continue;
+        }
+        final StartedCalendarEvent event = calendarEventFactory.createStartedEvent(job, build);
+        if (event.isInRange(inclusionRange)) {
+          events.put(event.getId(), event);
+        }
+      }
+      for (final StartedCalendarEvent event : getRunningEvents(jobs, inclusionRange, eventsType)) {
+        events.put(event.getId(), event);
+      }
+    }
+    final Moment from;
+    if (since.isBefore(inclusionRange.getStart())) {
+      from = inclusionRange.getStart();
+    } else {
+      // summaries are identified by their first occurrence, so they have to
+      // be collected from the same minute on as when the client fetched them
+      from = summaryThreshold > 0 ? since.nextMinute() : since;
+    }
+    final Moment to = now.isAfter(inclusionRange.getEnd()) ? inclusionRange.getEnd() : now;
+    if (isValidRange(from, to)) {
+      final Set<Job> summarizedJobs = new LinkedHashSet<>();
+      for (final ScheduledCalendarEvent event : new CalendarEventService(now, cronJobService, summaryThreshold).getScheduledEventsForward(jobs, range(from, to),
+          inclusionRange, eventsType)) {
+        if (!events.containsKey(event.getId())) {
+          removedIds.add(event.getId());
+        }
+        if (event.isSummary()) {
+          summarizedJobs.add(event.getJob());
+        }
+      }
+      // a removed summary also took the rest of its day with it
+      final Moment endOfDay = getEndOfDay(now);
+      if (!summarizedJobs.isEmpty() && isValidRange(now.nextMinute(), endOfDay)) {
+        for (final ScheduledCalendarEvent event : getScheduledEventsForward(new ArrayList<>(summarizedJobs), range(now.nextMinute(), endOfDay), inclusionRange,
+            eventsType)) {
+          events.put(event.getId(), event);
+        }
+      }
+    }
+    return new ArrayList<>(events.values());
+  }
+
+  private static Moment getEndOfDay(final Moment moment) {
+    final ZoneId zone = TimeZone.getDefault().toZoneId();
+    return new Moment(Instant.ofEpochMilli(moment.getTimeInMillis()).atZone(zone).toLocalDate().plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli() - 1);
+  }
+
+  /**
+   * Creates the event of a single build, e.g. to look up the details of an
+   * event that was sent to the calendar before.
+   *
+   * @param job   The job
+   * @param build A build of the job
+   * @return The event of the build
+   */
+  public StartedCalendarEvent getStartedEvent(final Job job, final Run build) {
+    return calendarEventFactory.createStartedEvent(job, build);
+  }
+
+  /**
+   * Creates the event of a single scheduled build, e.g. to look up the
+   * details of an event that was sent to the calendar before.
+   *
+   * @param job               The job
+   * @param startTimeInMillis The time the build is scheduled for
+   * @return The event of the scheduled build
+   */
+  public ScheduledCalendarEvent getScheduledEvent(final Job job, final long startTimeInMillis) {
+    return calendarEventFactory.createScheduledEvent(job, Collections.emptyMap(), startTimeInMillis, jobMemo.getEstimatedDuration(job));
   }
 
   public List<StartedCalendarEvent> getFinishedEvents(final List<? extends Job> jobs, final MomentRange range, final CalendarViewEventsType eventsType) {
@@ -224,31 +515,190 @@ public class CalendarEventService {
       throw new IllegalArgumentException("State for started events cannot be " + CalendarEventState.SCHEDULED);
     }
 
-    final List<StartedCalendarEvent> events = new ArrayList<>();
-    if (eventsType != CalendarViewEventsType.POLLINGS) {
-      for (final Job job : jobs) {
-        if (state == CalendarEventState.RUNNING && !job.isBuilding()) {
-          continue;
+    if (eventsType == CalendarViewEventsType.POLLINGS) {
+      return new ArrayList<>();
+    }
+    final Map<Job, Set<Run>> runningBuilds = state == CalendarEventState.FINISHED ? null : getRunningBuilds();
+    return JobCollector.collect(jobs, (job, events) -> {
+      if (isSkipped(job)) {
+        return;
+      }
+      if (state != CalendarEventState.RUNNING) {
+        collectFinishedEvents(job, range, events);
+      }
+      if (state != CalendarEventState.FINISHED) {
+        collectRunningEvents(job, runningBuilds, range, events);
+      }
+    });
+  }
+
+  private void collectFinishedEvents(final Job job, final MomentRange range, final List<StartedCalendarEvent> events) {
+    final List<Integer> numbers = BuildIntervalIndex.get().getBuildNumbers(job, range.getStart().getTimeInMillis(), range.getEnd().getTimeInMillis());
+    if (numbers != null) {
+      for (final int number : numbers) {
+        final Run build = job.getBuildByNumber(number);
+        if (build != null && !build.isBuilding()) {
+          collectEvent(job, build, range, events);
         }
-        final List<Run> builds = job.getBuilds();
-        for (final Run build : builds) {
-          if ((state == CalendarEventState.RUNNING && !build.isBuilding()) || (state == CalendarEventState.FINISHED && build.isBuilding())) {
-            continue;
-          }
-          final StartedCalendarEvent event = calendarEventFactory.createStartedEvent(job, build);
-          if (event.isInRange(range)) {
-            events.add(event);
-          }
+      }
+      return;
+    }
+    // builds that run concurrently may finish in any order, so no matter how
+    // early a build finished, an older one may still overlap the range. Their
+    // history is walked to the end until the build interval index is ready.
+    final boolean concurrent = job instanceof Queue.Task task && task.isConcurrentBuild();
+    for (final Run build : getBuildsStartedBefore(job, range.getEnd())) {
+      if (build.isBuilding()) {
+        continue;
+      }
+      if (!concurrent && finishedBefore(build, range.getStart())) {
+        break;
+      }
+      collectEvent(job, build, range, events);
+    }
+  }
+
+  private void collectRunningEvents(final Job job, final Map<Job, Set<Run>> runningBuilds, final MomentRange range,
+      final List<StartedCalendarEvent> events) {
+    if (runningBuilds != null) {
+      for (final Run build : runningBuilds.getOrDefault(job, Collections.emptySet())) {
+        if (build.isBuilding()) {
+          collectEvent(job, build, range, events);
         }
       }
+      return;
+    }
+    if (!job.isBuilding()) {
+      return;
+    }
+    final List<Run> builds = job.getBuilds();
+    for (final Run build : builds) {
+      if (build.isBuilding()) {
+        collectEvent(job, build, range, events);
+      }
+    }
+  }
+
+  /**
+   * Collects the builds that are currently running on any executor, so that
+   * running events can be found without walking the build history of every
+   * job. Returns <code>null</code> if there is no Jenkins instance to ask.
+   */
+  private static Map<Job, Set<Run>> getRunningBuilds() {
+    final Jenkins jenkins = Jenkins.getInstanceOrNull();
+    if (jenkins == null) {
+      return null;
+    }
+    final Map<Job, Set<Run>> runningBuilds = new IdentityHashMap<>();
+    for (final Computer computer : jenkins.getComputers()) {
+      for (final Executor executor : computer.getAllExecutors()) {
+        // pipeline steps run as child executables of the pipeline build,
+        // which occupies a flyweight executor of its own
+        final Queue.Executable executable = executor.getCurrentExecutable();
+        if (executable instanceof Run build) {
+          runningBuilds.computeIfAbsent(build.getParent(), job -> new LinkedHashSet<>()).add(build);
+        }
+      }
+    }
+    return runningBuilds;
+  }
+
+  private void collectEvent(final Job job, final Run build, final MomentRange range, final List<StartedCalendarEvent> events) {
+    final StartedCalendarEvent event = calendarEventFactory.createStartedEvent(job, build);
+    if (event.isInRange(range)) {
+      events.add(event);
+    }
+  }
+
+  /**
+   * Returns the builds of a job that started before the given moment, newest
+   * first. Since build numbers increase with the start time the newest of these
+   * builds is found with a binary search over the build numbers, so builds that
+   * started later are never loaded.
+   *
+   * @param job    The job whose builds should be returned
+   * @param moment The moment before which the builds must have started
+   * @return The builds that started before the moment, newest first
+   */
+  private static Iterable<Run> getBuildsStartedBefore(final Job job, final Moment moment) {
+    final Run lastBuild = job.getLastBuild();
+    if (lastBuild == null || lastBuild.getStartTimeInMillis() < moment.getTimeInMillis()) {
+      return job.getBuilds();
+    }
+    final Run newestBuild = findNewestBuildStartedBefore(job, lastBuild, moment.getTimeInMillis());
+    return () -> new PreviousBuildIterator(newestBuild);
+  }
+
+  private static Run findNewestBuildStartedBefore(final Job job, final Run lastBuild, final long timeInMillis) {
+    final Run firstBuild = job.getFirstBuild();
+    if (firstBuild == null || firstBuild.getStartTimeInMillis() >= timeInMillis) {
+      return null;
+    }
+    Run newestBuild = firstBuild;
+    int low = firstBuild.getNumber() + 1;
+    int high = lastBuild.getNumber() - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final Run build = job.getNearestOldBuild(mid);
+      if (build == null || build.getNumber() < low) {
+        low = mid + 1;
+      } else if (build.getStartTimeInMillis() < timeInMillis) {
+        newestBuild = build;
+        low = mid + 1;
+      } else {
+        high = build.getNumber() - 1;
+      }
+    }
+    return newestBuild;
+  }
+
+  /**
+   * Checks whether a build finished before the given moment. Older builds
+   * started even earlier, so once such a build is reached while walking the
+   * history newest first, none of the remaining builds can overlap a range that
+   * starts at this moment (unless they ran concurrently and outlasted it).
+   */
+  private static boolean finishedBefore(final Run build, final Moment moment) {
+    // events last at least 1sec, see CalendarEventFactory
+    return build.getStartTimeInMillis() + Math.max(build.getDuration(), 1000) <= moment.getTimeInMillis();
+  }
+
+  /**
+   * Walks the build history from a given build to the oldest one, loading each
+   * previous build only when it is actually requested.
+   */
+  private static final class PreviousBuildIterator implements Iterator<Run> {
+    private transient Run next;
+    private transient Run last;
+
+    /* default */ PreviousBuildIterator(final Run first) {
+      this.next = first;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (last != null) {
+        next = last.getPreviousBuild();
+        last = null;
+      }
+      return next != null;
+    }
+
+    @Override
+    public Run next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      last = next;
+      next = null;
+      return last;
     }
-    return events;
   }
 
   public List<StartedCalendarEvent> getLastEvents(final CalendarEvent event, final int numberOfEvents) {
     final List<StartedCalendarEvent> lastEvents = new ArrayList<>();
     final Job job = event.getJob();
-    final List<Run> lastBuilds = job.getLastBuildsOverThreshold(numberOfEvents, Result.ABORTED);
+    final List<Run> lastBuilds = jobMemo.getLastBuildsOverThreshold(job, numberOfEvents, Result.ABORTED);
     for (final Run lastBuild : lastBuilds) {
       final StartedCalendarEvent lastEvent = calendarEventFactory.createStartedEvent(job, lastBuild);
       lastEvents.add(lastEvent);
@@ -280,7 +730,7 @@ public class CalendarEventService {
     final Job job = event.getJob();
     final Calendar nextStart = cronJobService.getNextStart(job, eventsType);
     if (nextStart != null) {
-      final long estimatedDuration = job.getEstimatedDuration();
+      final long estimatedDuration = jobMemo.getEstimatedDuration(job);
       return calendarEventFactory.createScheduledEvent(job, Collections.emptyMap(), nextStart, estimatedDuration);
     }
     return null;
@@ -50,6 +50,7 @@ import jenkins.triggers.TriggeredItem;
 public class CronJobService {
 
   private final transient Moment now;
+  private final transient JobMemo jobMemo = new JobMemo();
 
   public CronJobService() {
     this(new Moment());
@@ -59,6 +60,14 @@ public class CronJobService {
     this.now = now;
   }
 
+  /**
+   * @return The memo of the request this service was created for, which
+   *         every service and writer of the request shares
+   */
+  public JobMemo getJobMemo() {
+    return jobMemo;
+  }
+
   public List<CronWrapper<?>> getCronTabs(final Trigger trigger) {
     return getCronTabs(trigger, null);
   }
@@ -133,12 +142,29 @@ public class CronJobService {
     return cronTriggers;
   }
 
+  /**
+   * Returns the cron tabs of all cron triggers of a job. The cron tabs are
+   * cached across requests, see {@link CronTabCache}.
+   *
+   * @param job        The job
+   * @param eventsType The type of events to return cron tabs for
+   * @return The cron tabs of the job
+   */
   public List<CronWrapper<?>> getCronTabs(final Job job, final CalendarViewEventsType eventsType) {
-    final List<CronWrapper<?>> cronTabs = new ArrayList<>();
-    for (final Trigger trigger : getCronTriggers(job, eventsType)) {
-      cronTabs.addAll(getCronTabs(trigger, Hash.from(job.getFullName())));
-    }
-    return cronTabs;
+    return jobMemo.get(job, eventsType, () -> {
+      final List<Trigger> triggers = getCronTriggers(job, eventsType);
+      if (triggers.isEmpty()) {
+        return Collections.emptyList();
+      }
+      return CronTabCache.get().getCronTabs(job.getFullName(), eventsType, triggers, () -> {
+        final Hash hash = jobMemo.getHash(job);
+        final List<CronWrapper<?>> cronTabs = new ArrayList<>();
+        for (final Trigger trigger : triggers) {
+          cronTabs.addAll(getCronTabs(trigger, hash));
+        }
+        return cronTabs;
+      });
+    });
   }
 
   public Calendar getNextStart(final Job job, final CalendarViewEventsType eventsType) {
@@ -0,0 +1,187 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.Saveable;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+import hudson.triggers.Trigger;
+import io.jenkins.plugins.view.calendar.CalendarView.CalendarViewEventsType;
+
+/**
+ * Keeps the parsed cron tabs of every job across requests, so that cron specs
+ * are not parsed again whenever a calendar is navigated.
+ *
+ * <p>
+ * Entries are dropped when a job is updated, saved, renamed or deleted. Each
+ * entry also remembers the triggers it was parsed from and is only used as
+ * long as the job still has exactly these triggers with the same specs.
+ */
+@Restricted(NoExternalUse.class)
+public final class CronTabCache {
+  private static final CronTabCache INSTANCE = new CronTabCache();
+
+  private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+
+  /* default */ CronTabCache() {
+  }
+
+  public static CronTabCache get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the cached cron tabs of a job, or parses and caches them if there
+   * are none yet or if the triggers of the job have changed.
+   *
+   * @param fullName   The full name of the job
+   * @param eventsType The type of events the cron tabs are collected for
+   * @param triggers   The current cron triggers of the job
+   * @param parser     Parses the cron tabs of the triggers
+   * @return The cron tabs of the job
+   */
+  public List<CronWrapper<?>> getCronTabs(final String fullName, final CalendarViewEventsType eventsType, final List<Trigger> triggers,
+      final Supplier<List<CronWrapper<?>>> parser) {
+    final Key key = new Key(fullName, eventsType);
+    final Entry entry = entries.get(key);
+    if (entry != null && entry.isParsedFrom(triggers)) {
+      return entry.cronTabs;
+    }
+    final Entry newEntry = new Entry(triggers, parser.get());
+    entries.put(key, newEntry);
+    return newEntry.cronTabs;
+  }
+
+  /**
+   * Drops the cron tabs of an item and its descendants.
+   *
+   * @param fullName The full name of the item
+   */
+  public void invalidate(final String fullName) {
+    generation.incrementAndGet();
+    entries.keySet().removeIf(key -> Objects.equals(key.fullName, fullName) || key.fullName != null && key.fullName.startsWith(fullName + "/"));
+  }
+
+  /**
+   * Returns a number that changes whenever a job is updated, saved, renamed or
+   * deleted.
+   *
+   * @return The number of invalidations so far
+   */
+  public long getGeneration() {
+    return generation.get();
+  }
+
+  private static final class Key {
+    private final String fullName;
+    private final CalendarViewEventsType eventsType;
+
+    /* default */ Key(final String fullName, final CalendarViewEventsType eventsType) {
+      this.fullName = fullName;
+      this.eventsType = eventsType;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof Key key && Objects.equals(fullName, key.fullName) && eventsType == key.eventsType;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(fullName, eventsType);
+    }
+  }
+
+  private static final class Entry {
+    private final List<Trigger> triggers;
+    private final String[] specs;
+    private final List<CronWrapper<?>> cronTabs;
+
+    /* default */ Entry(final List<Trigger> triggers, final List<CronWrapper<?>> cronTabs) {
+      this.triggers = List.copyOf(triggers);
+      this.specs = new String[triggers.size()];
+      for (int i = 0; i < specs.length; i++) {
+        specs[i] = triggers.get(i).getSpec();
+      }
+      this.cronTabs = List.copyOf(cronTabs);
+    }
+
+    /* default */ boolean isParsedFrom(final List<Trigger> currentTriggers) {
+      if (currentTriggers.size() != triggers.size()) {
+        return false;
+      }
+      for (int i = 0; i < specs.length; i++) {
+        if (currentTriggers.get(i) != triggers.get(i) || !Objects.equals(currentTriggers.get(i).getSpec(), specs[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  @Extension
+  @Restricted(NoExternalUse.class)
+  public static class CronTabCacheItemListener extends ItemListener {
+    @Override
+    public void onUpdated(final Item item) {
+      CronTabCache.get().invalidate(item.getFullName());
+    }
+
+    @Override
+    public void onLocationChanged(final Item item, final String oldFullName, final String newFullName) {
+      CronTabCache.get().invalidate(oldFullName);
+    }
+
+    @Override
+    public void onDeleted(final Item item) {
+      CronTabCache.get().invalidate(item.getFullName());
+    }
+  }
+
+  @Extension
+  @Restricted(NoExternalUse.class)
+  public static class CronTabCacheSaveableListener extends SaveableListener {
+    @Override
+    public void onChange(final Saveable o, final XmlFile file) {
+      if (o instanceof Job job) {
+        CronTabCache.get().invalidate(job.getFullName());
+      }
+    }
+  }
+}
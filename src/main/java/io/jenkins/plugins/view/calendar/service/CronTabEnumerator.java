@@ -0,0 +1,176 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import java.lang.reflect.Field;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.function.LongPredicate;
+
+import org.apache.log4j.Logger;
+
+import hudson.scheduler.CronTab;
+
+/**
+ * Enumerates the occurrences of a {@link CronTab} straight from its bitmasks,
+ * instead of searching for every single occurrence with
+ * {@link CronTab#ceil(long)}.
+ *
+ * <p>
+ * Days are checked against the month, day-of-month and day-of-week masks
+ * once, and the minutes of matching days are computed from the start of the
+ * day. Days on which the UTC offset changes are left to
+ * {@link CronTab#ceil(long)}, which knows how to handle them.
+ */
+/* default */ final class CronTabEnumerator {
+  private static final long MINUTE = 60 * 1000L;
+  private static final long HOUR = 60 * MINUTE;
+  private static final long DAY = 24 * HOUR;
+
+  private static final Field BITS = getField("bits");
+  private static final Field DAY_OF_WEEK = getField("dayOfWeek");
+
+  private final CronTab cronTab;
+  private final long minutes;
+  private final long hours;
+  private final long days;
+  private final long months;
+  private final int daysOfWeek;
+
+  private CronTabEnumerator(final CronTab cronTab, final long[] bits, final int daysOfWeek) {
+    this.cronTab = cronTab;
+    this.minutes = bits[0];
+    this.hours = bits[1];
+    this.days = bits[2];
+    this.months = bits[3];
+    this.daysOfWeek = daysOfWeek;
+  }
+
+  /**
+   * Creates an enumerator for the given cron tab, or returns <code>null</code>
+   * if its bitmasks are not accessible or it is bound to a time zone of its
+   * own.
+   *
+   * @param cronTab The cron tab
+   * @return The enumerator or <code>null</code>
+   */
+  /* default */ static CronTabEnumerator of(final CronTab cronTab) {
+    if (BITS == null || DAY_OF_WEEK == null || cronTab.getTimeZone() != null) {
+      return null;
+    }
+    try {
+      return new CronTabEnumerator(cronTab, ((long[]) BITS.get(cronTab)).clone(), DAY_OF_WEEK.getInt(cronTab));
+    } catch (IllegalAccessException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Passes the start of every occurrence between both times to the action, in
+   * ascending order, until the action returns <code>false</code>.
+   *
+   * @param fromInMillis Start of the search, rounded down to the minute
+   * @param toInMillis   End of the search (inclusive)
+   * @param action       Receives the occurrences
+   */
+  /* default */ void forEach(final long fromInMillis, final long toInMillis, final LongPredicate action) {
+    final long from = fromInMillis - Math.floorMod(fromInMillis, MINUTE);
+    final ZoneId zone = TimeZone.getDefault().toZoneId();
+    final LocalDate lastDay = Instant.ofEpochMilli(toInMillis).atZone(zone).toLocalDate();
+    LocalDate day = Instant.ofEpochMilli(from).atZone(zone).toLocalDate();
+    long dayStart = day.atStartOfDay(zone).toInstant().toEpochMilli();
+    while (!day.isAfter(lastDay)) {
+      final LocalDate nextDay = day.plusDays(1);
+      final long nextDayStart = nextDay.atStartOfDay(zone).toInstant().toEpochMilli();
+      if (matches(day)) {
+        final boolean proceed = nextDayStart - dayStart == DAY
+            ? forEachOfDay(dayStart, from, toInMillis, action)
+            : forEachWithCeil(Math.max(dayStart, from), Math.min(nextDayStart - 1, toInMillis), action);
+        if (!proceed) {
+          return;
+        }
+      }
+      day = nextDay;
+      dayStart = nextDayStart;
+    }
+  }
+
+  private boolean matches(final LocalDate day) {
+    return isSet(months, day.getMonthValue()) && isSet(days, day.getDayOfMonth()) && isSet(daysOfWeek, day.getDayOfWeek().getValue() % 7);
+  }
+
+  private boolean forEachOfDay(final long dayStart, final long from, final long to, final LongPredicate action) {
+    for (int hour = 0; hour < 24; hour++) {
+      if (isSet(hours, hour)) {
+        for (int minute = 0; minute < 60; minute++) {
+          final long timeInMillis = dayStart + hour * HOUR + minute * MINUTE;
+          if (isSet(minutes, minute) && timeInMillis >= from) {
+            if (timeInMillis > to || !action.test(timeInMillis)) {
+              return false;
+            }
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  private boolean forEachWithCeil(final long from, final long to, final LongPredicate action) {
+    long timeInMillis = from;
+    while (timeInMillis <= to) {
+      final Calendar next = cronTab.ceil(timeInMillis);
+      if (next == null) {
+        return false;
+      }
+      next.set(Calendar.SECOND, 0);
+      next.set(Calendar.MILLISECOND, 0);
+      if (next.getTimeInMillis() > to) {
+        return true;
+      }
+      if (!action.test(next.getTimeInMillis())) {
+        return false;
+      }
+      timeInMillis = next.getTimeInMillis() + MINUTE;
+    }
+    return true;
+  }
+
+  private static boolean isSet(final long bits, final int index) {
+    return (bits & (1L << index)) != 0;
+  }
+
+  private static Field getField(final String name) {
+    try {
+      final Field field = CronTab.class.getDeclaredField(name);
+      field.setAccessible(true);
+      return field;
+    } catch (NoSuchFieldException | RuntimeException e) {
+      Logger.getLogger(CronTabEnumerator.class).info("Unable to access CronTab." + name + ", falling back to CronTab.ceil()", e);
+      return null;
+    }
+  }
+}
@@ -1,10 +1,12 @@
 package io.jenkins.plugins.view.calendar.service;
 
+import java.lang.reflect.Field;
 import java.time.ZonedDateTime;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.GregorianCalendar;
 import java.util.Map;
+import java.util.function.LongPredicate;
 
 import org.jenkinsci.plugins.parameterizedscheduler.ParameterizedCronTab;
 
@@ -20,11 +22,37 @@ public abstract class CronWrapper<T> {
 
   public abstract Map<String, String> getParameters();
 
+  /**
+   * Passes the start of every occurrence between both times to the action, in
+   * ascending order, until the action returns <code>false</code>.
+   *
+   * @param fromInMillis Start of the search, rounded down to the minute
+   * @param toInMillis   End of the search (inclusive)
+   * @param action       Receives the occurrences
+   */
+  public void forEachOccurrence(long fromInMillis, long toInMillis, LongPredicate action) {
+    long timeInMillis = fromInMillis;
+    while (true) {
+      Calendar next = ceil(timeInMillis);
+      if (next == null) {
+        return;
+      }
+      next.set(Calendar.SECOND, 0);
+      next.set(Calendar.MILLISECOND, 0);
+      if (next.getTimeInMillis() > toInMillis || !action.test(next.getTimeInMillis())) {
+        return;
+      }
+      timeInMillis = next.getTimeInMillis() + 60 * 1000;
+    }
+  }
+
   public static class ClassicCronTab extends CronWrapper<CronTab> {
     private final CronTab cronTab;
+    private final CronTabEnumerator enumerator;
 
     public ClassicCronTab(CronTab cronTab) {
       this.cronTab = cronTab;
+      this.enumerator = CronTabEnumerator.of(cronTab);
     }
 
     @Override
@@ -46,14 +74,40 @@ public abstract class CronWrapper<T> {
     public Map<String, String> getParameters() {
       return Collections.emptyMap();
     }
+
+    @Override
+    public void forEachOccurrence(long fromInMillis, long toInMillis, LongPredicate action) {
+      if (enumerator == null) {
+        super.forEachOccurrence(fromInMillis, toInMillis, action);
+      } else {
+        enumerator.forEach(fromInMillis, toInMillis, action);
+      }
+    }
   }
 
   public static class ParameterizedCronWrapper extends CronWrapper<ParameterizedCronTab> {
 
     private final ParameterizedCronTab cronTab;
+    private final CronTabEnumerator enumerator;
 
     public ParameterizedCronWrapper(ParameterizedCronTab cronTab) {
       this.cronTab = cronTab;
+      this.enumerator = getEnumerator(cronTab);
+    }
+
+    private static CronTabEnumerator getEnumerator(ParameterizedCronTab cronTab) {
+      // the wrapped cron tab is not exposed
+      for (Field field : ParameterizedCronTab.class.getDeclaredFields()) {
+        if (field.getType() == CronTab.class) {
+          try {
+            field.setAccessible(true);
+            return CronTabEnumerator.of((CronTab) field.get(cronTab));
+          } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+          }
+        }
+      }
+      return null;
     }
 
     @Override
@@ -75,6 +129,15 @@ public abstract class CronWrapper<T> {
     public Map<String, String> getParameters() {
       return this.cronTab.getParameterValues();
     }
+
+    @Override
+    public void forEachOccurrence(long fromInMillis, long toInMillis, LongPredicate action) {
+      if (enumerator == null) {
+        super.forEachOccurrence(fromInMillis, toInMillis, action);
+      } else {
+        enumerator.forEach(fromInMillis, toInMillis, action);
+      }
+    }
   }
 
   public static class ExtendedCronTab extends CronWrapper<CronTabWrapper> {
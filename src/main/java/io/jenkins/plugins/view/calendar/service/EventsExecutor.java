@@ -0,0 +1,145 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.springframework.security.core.Authentication;
+
+import hudson.security.ACL;
+
+import jenkins.util.SystemProperties;
+
+/**
+ * Runs the collection of calendar events on a bounded pool of threads of
+ * its own, so that large calendars can neither occupy all request threads
+ * nor all processors of the controller.
+ *
+ * <p>
+ * Requests are admitted as long as the queue of the pool has room and the
+ * requester has less than {@link #USER_LIMIT} requests running or waiting.
+ * Anonymous requests are told apart by their remote address, so that e.g.
+ * several wall screens showing the calendar without logging in don't share
+ * a single limit. All other requests are rejected right away and should be
+ * answered with <code>503 Service Unavailable</code>. The limits can be set
+ * with the system properties
+ * <code>io.jenkins.plugins.view.calendar.service.EventsExecutor.threads</code>,
+ * <code>.queueSize</code> and <code>.userLimit</code>.
+ */
+@Restricted(NoExternalUse.class)
+public final class EventsExecutor {
+  public static final int THREADS = SystemProperties.getInteger(EventsExecutor.class.getName() + ".threads",
+      Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+  public static final int QUEUE_SIZE = SystemProperties.getInteger(EventsExecutor.class.getName() + ".queueSize", 32);
+  public static final int USER_LIMIT = SystemProperties.getInteger(EventsExecutor.class.getName() + ".userLimit", 2);
+
+  // seconds a rejected client should wait before it tries again
+  public static final int RETRY_AFTER = 5;
+
+  private final ThreadPoolExecutor executor;
+  private final int userLimit;
+  private final ConcurrentMap<String, Integer> requestsPerUser = new ConcurrentHashMap<>();
+
+  /* default */ EventsExecutor(final int threads, final int queueSize, final int userLimit) {
+    final AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), runnable -> {
+      final Thread thread = new Thread(runnable, "CalendarView events " + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.executor.allowCoreThreadTimeOut(true);
+    this.userLimit = userLimit;
+  }
+
+  public static EventsExecutor get() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Returns the key the requests of a requester are counted by.
+   *
+   * @param authentication The authentication of the request
+   * @param remoteAddress  The remote address of the request
+   * @return The name of the user, or the remote address for anonymous requests
+   */
+  public static String getRequester(final Authentication authentication, final String remoteAddress) {
+    return ACL.isAnonymous2(authentication) ? "anonymous@" + remoteAddress : authentication.getName();
+  }
+
+  /**
+   * Runs a task on the pool, unless the pool is busy or the requester has too
+   * many requests running or waiting already.
+   *
+   * @param user The requester, see {@link #getRequester(Authentication, String)}
+   * @param task The task
+   * @return <code>false</code> if the task was rejected
+   */
+  public boolean submit(final String user, final Runnable task) {
+    final boolean[] admitted = new boolean[1];
+    requestsPerUser.compute(user, (u, requests) -> {
+      final int count = requests == null ? 0 : requests;
+      if (count >= userLimit) {
+        return requests;
+      }
+      admitted[0] = true;
+      return count + 1;
+    });
+    if (!admitted[0]) {
+      return false;
+    }
+    try {
+      executor.execute(() -> {
+        try {
+          task.run();
+        } finally {
+          release(user);
+        }
+      });
+      return true;
+    } catch (RejectedExecutionException e) {
+      release(user);
+      return false;
+    }
+  }
+
+  private void release(final String user) {
+    requestsPerUser.computeIfPresent(user, (u, requests) -> requests <= 1 ? null : requests - 1);
+  }
+
+  /* default */ void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private static final class Holder {
+    /* default */ static final EventsExecutor INSTANCE = new EventsExecutor(THREADS, QUEUE_SIZE, USER_LIMIT);
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.BiConsumer;
+
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.springframework.security.core.Authentication;
+
+import hudson.model.Job;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+
+/**
+ * Collects values for every job of a list, one job after the other or split
+ * across a bounded pool of worker threads.
+ *
+ * <p>
+ * Jobs are collected in parallel if the system property
+ * <code>io.jenkins.plugins.view.calendar.service.JobCollector.parallelism</code>
+ * is set to more than <code>1</code>. The property defines the number of
+ * worker threads shared by all calendar views of the controller. Every task
+ * collects into a buffer of its own, and the buffers are merged in the order
+ * of the jobs, so the result is the same as when collecting sequentially.
+ */
+@Restricted(NoExternalUse.class)
+public final class JobCollector {
+  public static final int PARALLELISM = SystemProperties.getInteger(JobCollector.class.getName() + ".parallelism", 1);
+
+  // splitting smaller lists costs more than it saves
+  private static final int MIN_JOBS_PER_TASK = 16;
+  private static final int TASKS_PER_THREAD = 4;
+
+  private JobCollector() {
+  }
+
+  /**
+   * Collects values for every job.
+   *
+   * @param <T>       Type of the collected values
+   * @param jobs      The jobs
+   * @param collector Adds the values of a job to the given list
+   * @return The values of all jobs, in the order of the jobs
+   */
+  public static <T> List<T> collect(final List<? extends Job> jobs, final BiConsumer<Job, List<T>> collector) {
+    if (PARALLELISM <= 1 || jobs.size() < 2 * MIN_JOBS_PER_TASK) {
+      return collectSequentially(jobs, collector);
+    }
+    return collect(jobs, collector, PoolHolder.POOL);
+  }
+
+  /* default */ static <T> List<T> collect(final List<? extends Job> jobs, final BiConsumer<Job, List<T>> collector, final ForkJoinPool pool) {
+    final int tasks = Math.max(1, Math.min(pool.getParallelism() * TASKS_PER_THREAD, jobs.size() / MIN_JOBS_PER_TASK));
+    final int jobsPerTask = (jobs.size() + tasks - 1) / tasks;
+    // permission checks on the worker threads have to see the requesting user
+    final Authentication authentication = Jenkins.getAuthentication2();
+
+    final List<ForkJoinTask<List<T>>> results = new ArrayList<>(tasks);
+    for (int from = 0; from < jobs.size(); from += jobsPerTask) {
+      final List<? extends Job> slice = jobs.subList(from, Math.min(from + jobsPerTask, jobs.size()));
+      results.add(pool.submit(() -> {
+        try (ACLContext ignored = ACL.as2(authentication)) {
+          return collectSequentially(slice, collector);
+        }
+      }));
+    }
+
+    final List<T> values = new ArrayList<>();
+    for (final ForkJoinTask<List<T>> result : results) {
+      values.addAll(result.join());
+    }
+    return values;
+  }
+
+  private static <T> List<T> collectSequentially(final List<? extends Job> jobs, final BiConsumer<Job, List<T>> collector) {
+    final List<T> values = new ArrayList<>();
+    for (final Job job : jobs) {
+      collector.accept(job, values);
+    }
+    return values;
+  }
+
+  private static final class PoolHolder {
+    /* default */ static final ForkJoinPool POOL = new ForkJoinPool(PARALLELISM, pool -> {
+      final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      thread.setName("CalendarView event collector " + thread.getPoolIndex());
+      return thread;
+    }, null, false);
+  }
+}
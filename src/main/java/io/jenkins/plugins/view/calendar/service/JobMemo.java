@@ -0,0 +1,132 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+import hudson.model.HealthReport;
+import hudson.model.Job;
+import hudson.model.ParameterDefinition;
+import hudson.model.ParameterValue;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.scheduler.Hash;
+
+/**
+ * Remembers values derived from jobs for the duration of one request, so that
+ * each of them is computed at most once per job, no matter how many events of
+ * the job need it. The build health of a job is the most expensive of them,
+ * since it walks the test results and other actions of the last builds.
+ *
+ * <p>
+ * A memo must not outlive the request it was created for, since the values
+ * are never refreshed.
+ */
+@Restricted(NoExternalUse.class)
+public final class JobMemo {
+  // stands in for null, which the maps cannot hold
+  private static final Object NULL = new Object();
+
+  private final ConcurrentMap<Job, ConcurrentMap<Object, Object>> values = new ConcurrentHashMap<>();
+
+  public long getEstimatedDuration(final Job job) {
+    return get(job, "estimatedDuration", job::getEstimatedDuration);
+  }
+
+  public HealthReport getBuildHealth(final Job job) {
+    return get(job, "buildHealth", job::getBuildHealth);
+  }
+
+  public Run getLastCompletedBuild(final Job job) {
+    return get(job, "lastCompletedBuild", job::getLastCompletedBuild);
+  }
+
+  @SuppressWarnings("unchecked")
+  public List<Run> getLastBuildsOverThreshold(final Job job, final int numberOfBuilds, final Result threshold) {
+    return get(job, Arrays.asList("lastBuildsOverThreshold", numberOfBuilds, threshold), () -> job.getLastBuildsOverThreshold(numberOfBuilds, threshold));
+  }
+
+  /**
+   * @param job The job
+   * @return The default values of the parameters of the job by name, which
+   *         must not be modified
+   */
+  public Map<String, String> getDefaultParameters(final Job job) {
+    return get(job, "defaultParameters", () -> {
+      final ParametersDefinitionProperty parameterDefinitions = (ParametersDefinitionProperty) job.getProperty(ParametersDefinitionProperty.class);
+      if (parameterDefinitions == null) {
+        return Collections.emptyMap();
+      }
+      final Map<String, String> parameters = new TreeMap<>();
+      for (final ParameterDefinition parameterDefinition : parameterDefinitions.getParameterDefinitions()) {
+        final ParameterValue parameterValue = parameterDefinition.getDefaultParameterValue();
+        if (parameterValue != null) {
+          final Object value = parameterValue.getValue();
+          if (value != null) {
+            parameters.put(parameterValue.getName(), value.toString());
+          }
+        }
+      }
+      return Collections.unmodifiableMap(parameters);
+    });
+  }
+
+  public Hash getHash(final Job job) {
+    return get(job, "hash", () -> Hash.from(job.getFullName()));
+  }
+
+  /**
+   * Returns the value of a job stored under a key, or computes and stores it
+   * if there is none yet. Concurrent callers may compute the value more than
+   * once, but all of them get the value stored first.
+   *
+   * @param <T>      Type of the value
+   * @param job      The job
+   * @param key      The key of the value
+   * @param supplier Computes the value
+   * @return The value
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(final Job job, final Object key, final Supplier<T> supplier) {
+    final ConcurrentMap<Object, Object> jobValues = values.computeIfAbsent(job, j -> new ConcurrentHashMap<>());
+    Object value = jobValues.get(key);
+    if (value == null) {
+      final T computed = supplier.get();
+      final Object stored = jobValues.putIfAbsent(key, computed == null ? NULL : computed);
+      value = stored == null ? computed : stored;
+    }
+    return value == NULL ? null : (T) value;
+  }
+}
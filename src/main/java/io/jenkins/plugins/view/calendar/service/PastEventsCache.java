@@ -0,0 +1,310 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.RunListener;
+import io.jenkins.plugins.view.calendar.CalendarView.CalendarViewEventsType;
+import io.jenkins.plugins.view.calendar.event.CalendarEvent;
+import io.jenkins.plugins.view.calendar.event.StartedCalendarEvent;
+import io.jenkins.plugins.view.calendar.time.MomentRange;
+import jenkins.util.SystemProperties;
+
+/**
+ * Keeps the events of ranges that lie completely in the past, so that paging
+ * back through the same weeks does not scan the build history again.
+ *
+ * <p>
+ * Such ranges only contain finished builds, so their events only change if
+ * builds are deleted or the view is reconfigured. Entries are dropped in both
+ * cases. Only the numbers of the builds are kept, not the events or builds
+ * themselves, so that the cache does not keep build records in memory; the
+ * events are created again from the builds on every hit. The cache holds at
+ * most {@link #MAX_EVENTS} events and evicts the least recently used ranges
+ * first.
+ */
+@Restricted(NoExternalUse.class)
+public final class PastEventsCache {
+  public static final int MAX_EVENTS = SystemProperties.getInteger(PastEventsCache.class.getName() + ".maxEvents", 50_000);
+
+  private static final PastEventsCache INSTANCE = new PastEventsCache(MAX_EVENTS);
+
+  private final int maxEvents;
+  private final Map<Key, Builds> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private int size;
+  private long generation;
+
+  /* default */ PastEventsCache(final int maxEvents) {
+    this.maxEvents = maxEvents;
+  }
+
+  public static PastEventsCache get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the events of a past range, created from the cached builds, or
+   * collects the events and caches their builds if there are none yet.
+   *
+   * @param view       The URL of the view the events are shown in
+   * @param jobs       The jobs of the view
+   * @param eventsType The type of events of the view
+   * @param range      The range, which must lie completely in the past
+   * @param collector  Collects the events of the range
+   * @param factory    Creates the event of a cached build
+   * @return The events of the range, which must not be modified
+   */
+  public List<CalendarEvent> getEvents(final String view, final List<? extends Job> jobs, final CalendarViewEventsType eventsType, final MomentRange range,
+      final Supplier<List<CalendarEvent>> collector, final BiFunction<Job, Run, ? extends CalendarEvent> factory) {
+    return getEvents(view, jobs, eventsType, range, collector, factory, () -> true);
+  }
+
+  /**
+   * Returns the events of a past range, created from the cached builds, or
+   * collects the events and caches their builds if they are complete.
+   *
+   * @param view       The URL of the view the events are shown in
+   * @param jobs       The jobs of the view
+   * @param eventsType The type of events of the view
+   * @param range      The range, which must lie completely in the past
+   * @param collector  Collects the events of the range
+   * @param factory    Creates the event of a cached build
+   * @param complete   Tells whether the collected events are complete, e.g.
+   *                   <code>false</code> if jobs were skipped; incomplete
+   *                   events are returned, but not cached
+   * @return The events of the range, which must not be modified
+   */
+  public List<CalendarEvent> getEvents(final String view, final List<? extends Job> jobs, final CalendarViewEventsType eventsType, final MomentRange range,
+      final Supplier<List<CalendarEvent>> collector, final BiFunction<Job, Run, ? extends CalendarEvent> factory, final BooleanSupplier complete) {
+    final Key key = new Key(view, jobs, eventsType, range);
+    final long collectedGeneration;
+    final Builds cached;
+    synchronized (this) {
+      cached = entries.get(key);
+      collectedGeneration = generation;
+    }
+    if (cached != null) {
+      return cached.toEvents(jobs, factory);
+    }
+    final List<CalendarEvent> events = Collections.unmodifiableList(new ArrayList<>(collector.get()));
+    if (events.size() > maxEvents || !complete.getAsBoolean()) {
+      return events;
+    }
+    final Builds builds = Builds.of(jobs, events);
+    synchronized (this) {
+      // skip events that were collected while entries were invalidated
+      if (builds != null && collectedGeneration == generation) {
+        final Builds previous = entries.put(key, builds);
+        size += builds.size() - (previous == null ? 0 : previous.size());
+        evict();
+      }
+    }
+    return events;
+  }
+
+  /**
+   * Drops the events of a view, e.g. after it has been reconfigured or
+   * deleted.
+   *
+   * @param view The URL of the view
+   */
+  public synchronized void invalidateView(final String view) {
+    removeIf(key -> key.view.equals(view));
+  }
+
+  /**
+   * Drops the events of all ranges containing a job or one of its descendants.
+   *
+   * @param fullName The full name of the item
+   */
+  public synchronized void invalidateJob(final String fullName) {
+    removeIf(key -> key.containsJob(fullName));
+  }
+
+  /* default */ synchronized int size() {
+    return size;
+  }
+
+  private void evict() {
+    final Iterator<Builds> it = entries.values().iterator();
+    while (size > maxEvents && it.hasNext()) {
+      size -= it.next().size();
+      it.remove();
+    }
+  }
+
+  private void removeIf(final Predicate<Key> predicate) {
+    generation++;
+    final Iterator<Map.Entry<Key, Builds>> it = entries.entrySet().iterator();
+    while (it.hasNext()) {
+      final Map.Entry<Key, Builds> entry = it.next();
+      if (predicate.test(entry.getKey())) {
+        size -= entry.getValue().size();
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * The builds of the events of a range in the order of the events, each
+   * stored as the index of its job in the jobs of the key and its number.
+   */
+  private static final class Builds {
+    private final int[] jobIndexes;
+    private final int[] numbers;
+
+    private Builds(final int[] jobIndexes, final int[] numbers) {
+      this.jobIndexes = jobIndexes;
+      this.numbers = numbers;
+    }
+
+    /**
+     * Returns the builds of events, or <code>null</code> if an event is not
+     * the event of a build of one of the jobs.
+     */
+    /* default */ static Builds of(final List<? extends Job> jobs, final List<CalendarEvent> events) {
+      final Map<Job, Integer> indexes = new IdentityHashMap<>();
+      for (int i = 0; i < jobs.size(); i++) {
+        indexes.put(jobs.get(i), i);
+      }
+      final int[] jobIndexes = new int[events.size()];
+      final int[] numbers = new int[events.size()];
+      for (int i = 0; i < numbers.length; i++) {
+        if (!(events.get(i) instanceof StartedCalendarEvent event)) {
+          return null;
+        }
+        final Run build = event.getBuild();
+        final Integer index = indexes.get(build.getParent());
+        if (index == null) {
+          return null;
+        }
+        jobIndexes[i] = index;
+        numbers[i] = build.getNumber();
+      }
+      return new Builds(jobIndexes, numbers);
+    }
+
+    /* default */ int size() {
+      return numbers.length;
+    }
+
+    /* default */ List<CalendarEvent> toEvents(final List<? extends Job> jobs, final BiFunction<Job, Run, ? extends CalendarEvent> factory) {
+      final List<CalendarEvent> events = new ArrayList<>(numbers.length);
+      for (int i = 0; i < numbers.length; i++) {
+        final Job job = jobs.get(jobIndexes[i]);
+        final Run build = job.getBuildByNumber(numbers[i]);
+        // deleted builds invalidate the entry, but may race with this lookup
+        if (build != null) {
+          events.add(factory.apply(job, build));
+        }
+      }
+      return Collections.unmodifiableList(events);
+    }
+  }
+
+  private static final class Key {
+    private final String view;
+    private final String[] jobs;
+    private final CalendarViewEventsType eventsType;
+    private final long start;
+    private final long end;
+    private final int hashCode;
+
+    /* default */ Key(final String view, final List<? extends Job> jobs, final CalendarViewEventsType eventsType, final MomentRange range) {
+      this.view = view;
+      this.jobs = new String[jobs.size()];
+      for (int i = 0; i < this.jobs.length; i++) {
+        this.jobs[i] = jobs.get(i).getFullName();
+      }
+      this.eventsType = eventsType;
+      this.start = range.getStart().getTimeInMillis();
+      this.end = range.getEnd().getTimeInMillis();
+      this.hashCode = Objects.hash(view, Arrays.hashCode(this.jobs), eventsType, start, end);
+    }
+
+    /* default */ boolean containsJob(final String fullName) {
+      for (final String job : jobs) {
+        if (Objects.equals(job, fullName) || job != null && job.startsWith(fullName + "/")) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof Key key && view.equals(key.view) && eventsType == key.eventsType && start == key.start && end == key.end
+          && Arrays.equals(jobs, key.jobs);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  @Extension
+  @Restricted(NoExternalUse.class)
+  public static class PastEventsCacheRunListener extends RunListener<Run<?, ?>> {
+    @Override
+    public void onDeleted(final Run<?, ?> build) {
+      PastEventsCache.get().invalidateJob(build.getParent().getFullName());
+    }
+  }
+
+  @Extension
+  @Restricted(NoExternalUse.class)
+  public static class PastEventsCacheItemListener extends ItemListener {
+    @Override
+    public void onDeleted(final Item item) {
+      PastEventsCache.get().invalidateJob(item.getFullName());
+    }
+
+    @Override
+    public void onLocationChanged(final Item item, final String oldFullName, final String newFullName) {
+      PastEventsCache.get().invalidateJob(oldFullName);
+    }
+  }
+}
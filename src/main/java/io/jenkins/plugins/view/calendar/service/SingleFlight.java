@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Coalesces concurrent computations of the same value. The first caller for
+ * a key computes the value, and callers with the same key that arrive in the
+ * meantime wait for it and share its result instead of computing it again.
+ *
+ * <p>
+ * Nothing is kept once a computation has finished, so the next caller for
+ * the key computes the value again. Shared results must not be modified.
+ *
+ * @param <K> Type of the keys
+ * @param <V> Type of the values
+ */
+@Restricted(NoExternalUse.class)
+public final class SingleFlight<K, V> {
+  private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+  /**
+   * Computes the value of a key, or waits for the computation of another
+   * caller with the same key to finish.
+   *
+   * @param key      The key
+   * @param supplier Computes the value
+   * @return The value
+   */
+  public V execute(final K key, final Supplier<V> supplier) {
+    final CompletableFuture<V> call = new CompletableFuture<>();
+    final CompletableFuture<V> inFlight = calls.putIfAbsent(key, call);
+    if (inFlight != null) {
+      return join(inFlight);
+    }
+    try {
+      final V value = supplier.get();
+      call.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      call.completeExceptionally(e);
+      throw e;
+    } finally {
+      calls.remove(key, call);
+    }
+  }
+
+  /* default */ int getInFlightCount() {
+    return calls.size();
+  }
+
+  private static <V> V join(final CompletableFuture<V> call) {
+    try {
+      return call.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
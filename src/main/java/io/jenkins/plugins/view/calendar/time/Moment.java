@@ -31,92 +31,90 @@ import org.kohsuke.accmod.restrictions.NoExternalUse;
 
 import io.jenkins.plugins.view.calendar.util.DateUtil;
 
+/**
+ * An immutable point in time, stored as milliseconds since the epoch. The
+ * time zone is only applied when a moment is formatted, since every zone in
+ * use today is offset from UTC by whole minutes.
+ */
 @SuppressWarnings("PMD.ShortClassName")
 @Restricted(NoExternalUse.class)
 public class Moment implements Comparable<Object> {
-  private final Calendar calendar;
+  private static final long MINUTE = 60 * 1000L;
+
+  private final long timeInMillis;
 
   public Moment() {
-    this(Calendar.getInstance());
+    this(System.currentTimeMillis());
   }
 
   public Moment(final long timeInMillis) {
-    this.calendar = Calendar.getInstance();
-    this.calendar.setTimeInMillis(timeInMillis);
+    this.timeInMillis = timeInMillis;
   }
 
   public Moment(final Calendar cal) {
-    this.calendar = (Calendar) cal.clone();
+    this(cal.getTimeInMillis());
   }
 
   public Moment nextMinute() {
-    final Calendar nextMinute = (Calendar) calendar.clone();
-    nextMinute.set(Calendar.SECOND, 0);
-    nextMinute.set(Calendar.MILLISECOND, 0);
-    nextMinute.add(Calendar.MINUTE, +1);
-    return new Moment(nextMinute);
+    return new Moment(Math.floorDiv(timeInMillis, MINUTE) * MINUTE + MINUTE);
   }
 
   public Moment previousMinute() {
-    final Calendar previousMinute = (Calendar) calendar.clone();
-    previousMinute.set(Calendar.SECOND, 0);
-    previousMinute.set(Calendar.MILLISECOND, 0);
-    previousMinute.add(Calendar.MINUTE, -1);
-    return new Moment(previousMinute);
+    return new Moment(Math.floorDiv(timeInMillis, MINUTE) * MINUTE - MINUTE);
   }
 
   public Date getTime() {
-    return calendar.getTime();
+    return new Date(timeInMillis);
   }
 
   @Override
   public int hashCode() {
-    return calendar.hashCode();
+    return Long.hashCode(timeInMillis);
   }
 
   @Override
   public boolean equals(final Object o) {
-    return (o instanceof Moment) && calendar.equals(((Moment) o).calendar);
+    return (o instanceof Moment) && timeInMillis == ((Moment) o).timeInMillis;
   }
 
   @Override
   public int compareTo(final Object o) {
     if (o instanceof Moment) {
-      return calendar.compareTo(((Moment) o).calendar);
+      return Long.compare(timeInMillis, ((Moment) o).timeInMillis);
     }
     throw new IllegalArgumentException("Can't compare object of type " + o.getClass().getCanonicalName());
   }
 
   public boolean isBefore(final Moment m) {
-    return this.isBefore(m.calendar);
+    return this.timeInMillis < m.timeInMillis;
   }
 
   public boolean isBefore(final Calendar c) {
-    return this.calendar.compareTo(c) < 0;
+    return this.timeInMillis < c.getTimeInMillis();
   }
 
   public boolean isSame(final Moment m) {
-    return this.isSame(m.calendar);
+    return this.timeInMillis == m.timeInMillis;
   }
 
   public boolean isSame(final Calendar c) {
-    return this.calendar.compareTo(c) == 0;
+    return this.timeInMillis == c.getTimeInMillis();
   }
 
   public boolean isAfter(final Moment m) {
-    return this.isAfter(m.calendar);
+    return this.timeInMillis > m.timeInMillis;
   }
 
   public boolean isAfter(final Calendar c) {
-    return this.calendar.compareTo(c) > 0;
+    return this.timeInMillis > c.getTimeInMillis();
   }
 
   public long getTimeInMillis() {
-    return calendar.getTimeInMillis();
+    return timeInMillis;
   }
 
   @Override
   public String toString() {
-    return DateUtil.formatDateTime(calendar.getTime());
+    return DateUtil.formatDateTime(getTime());
   }
 }
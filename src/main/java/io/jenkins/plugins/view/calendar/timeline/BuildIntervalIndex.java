@@ -0,0 +1,116 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.timeline;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+import hudson.model.Job;
+import hudson.model.Run;
+
+/**
+ * Controller-wide index of the build intervals of all jobs, shared by all
+ * calendar views.
+ *
+ * <p>
+ * The intervals of a job are loaded from its {@link BuildTimeline} the first
+ * time they are requested and are kept up to date by
+ * {@link BuildTimelineListener} from then on. Updates replace the immutable
+ * {@link BuildIntervals} of a job, so queries never block.
+ *
+ * <p>
+ * If the timelines are memory mapped, see {@link BuildTimelineStore}, the
+ * index keeps nothing on the heap and queries the mapped timelines instead.
+ */
+@Restricted(NoExternalUse.class)
+public final class BuildIntervalIndex {
+  private static final BuildIntervalIndex INSTANCE = new BuildIntervalIndex(BuildTimelineStore.get());
+
+  private final BuildTimelineStore store;
+  private final ConcurrentMap<String, BuildIntervals> intervals = new ConcurrentHashMap<>();
+
+  /* default */ BuildIntervalIndex(final BuildTimelineStore store) {
+    this.store = store;
+  }
+
+  public static BuildIntervalIndex get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the numbers of all builds of a job overlapping the given interval,
+   * newest first, or <code>null</code> if the job has not been indexed yet.
+   *
+   * @param job  The job
+   * @param from Start of the interval in millis (inclusive)
+   * @param to   End of the interval in millis (exclusive)
+   * @return Build numbers, newest first, or <code>null</code>
+   */
+  public List<Integer> getBuildNumbers(final Job job, final long from, final long to) {
+    if (store.isMemoryMapped()) {
+      return store.getBuildNumbers(job, from, to);
+    }
+    if (BuildTimelineStore.getFile(job) == null) {
+      return null;
+    }
+    // concurrent updates of the same job wait for the timeline to be loaded
+    final BuildIntervals jobIntervals = intervals.computeIfAbsent(job.getFullName(), fullName -> {
+      final BuildTimeline timeline = store.getTimeline(job);
+      return timeline == null ? null : BuildIntervals.of(timeline);
+    });
+    return jobIntervals == null ? null : jobIntervals.getBuildNumbers(from, to);
+  }
+
+  /**
+   * Adds a build to the index or updates it if it is already contained.
+   *
+   * @param build The build
+   */
+  public void update(final Run build) {
+    intervals.computeIfPresent(build.getParent().getFullName(), (fullName, jobIntervals) -> jobIntervals.with(build));
+  }
+
+  /**
+   * Removes a build from the index.
+   *
+   * @param build The build
+   */
+  public void remove(final Run build) {
+    intervals.computeIfPresent(build.getParent().getFullName(), (fullName, jobIntervals) -> jobIntervals.without(build.getNumber()));
+  }
+
+  /**
+   * Removes all builds of an item and its descendants from the index, e.g.
+   * because it was deleted or renamed.
+   *
+   * @param fullName The full name of the item
+   */
+  public void remove(final String fullName) {
+    intervals.keySet().removeIf(key -> key.equals(fullName) || key.startsWith(fullName + "/"));
+  }
+}
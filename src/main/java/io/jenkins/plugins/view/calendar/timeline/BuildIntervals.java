@@ -0,0 +1,186 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.timeline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import hudson.model.Run;
+
+/**
+ * Immutable set of build intervals of a single job, ordered by build number.
+ *
+ * <p>
+ * The sorted arrays double as an implicit balanced binary search tree: the
+ * root of every range <code>[low, high]</code> is its middle element, and
+ * <code>maxEnds</code> holds the latest end of every subtree. Overlap queries
+ * skip every subtree that ends before the interval, so they take
+ * <code>O(log n + k)</code> no matter how long single builds took.
+ */
+/* default */ final class BuildIntervals {
+
+  private final int[] numbers;
+  private final long[] starts;
+  private final long[] ends;
+  private final long[] maxEnds;
+
+  private BuildIntervals(final int[] numbers, final long[] starts, final long[] ends) {
+    this.numbers = numbers;
+    this.starts = starts;
+    this.ends = ends;
+    this.maxEnds = new long[numbers.length];
+    initMaxEnds(0, numbers.length - 1);
+  }
+
+  /* default */ static BuildIntervals of(final BuildTimeline timeline) {
+    final int size = timeline.size();
+    final int[] numbers = new int[size];
+    final long[] starts = new long[size];
+    final long[] ends = new long[size];
+    for (int i = 0; i < size; i++) {
+      numbers[i] = timeline.getNumber(i);
+      starts[i] = timeline.getStartTimeInMillis(i);
+      ends[i] = timeline.isBuilding(i) ? Long.MAX_VALUE : starts[i] + Math.max(timeline.getDuration(i), BuildTimeline.MIN_DURATION);
+    }
+    return new BuildIntervals(numbers, starts, ends);
+  }
+
+  /* default */ int size() {
+    return numbers.length;
+  }
+
+  /**
+   * Returns a copy of these intervals with the given build added or updated.
+   *
+   * @param build The build
+   * @return The updated intervals
+   */
+  /* default */ BuildIntervals with(final Run build) {
+    final long start = build.getStartTimeInMillis();
+    final long end = build.isBuilding() ? Long.MAX_VALUE : start + Math.max(build.getDuration(), BuildTimeline.MIN_DURATION);
+    final int index = Arrays.binarySearch(numbers, build.getNumber());
+    if (index >= 0) {
+      final long[] newStarts = starts.clone();
+      final long[] newEnds = ends.clone();
+      newStarts[index] = start;
+      newEnds[index] = end;
+      return new BuildIntervals(numbers, newStarts, newEnds);
+    }
+    final int insertion = -index - 1;
+    return new BuildIntervals(
+      insert(numbers, insertion, build.getNumber()),
+      insert(starts, insertion, start),
+      insert(ends, insertion, end)
+    );
+  }
+
+  /**
+   * Returns a copy of these intervals without the build with the given number.
+   *
+   * @param number The build number
+   * @return The updated intervals
+   */
+  /* default */ BuildIntervals without(final int number) {
+    final int index = Arrays.binarySearch(numbers, number);
+    if (index < 0) {
+      return this;
+    }
+    return new BuildIntervals(remove(numbers, index), remove(starts, index), remove(ends, index));
+  }
+
+  /**
+   * Returns the numbers of all builds overlapping the given interval, newest
+   * first. Builds that are still running are returned if they started before
+   * the end of the interval.
+   *
+   * @param from Start of the interval in millis (inclusive)
+   * @param to   End of the interval in millis (exclusive)
+   * @return Build numbers, newest first
+   */
+  /* default */ List<Integer> getBuildNumbers(final long from, final long to) {
+    final List<Integer> result = new ArrayList<>();
+    collectBuildNumbers(0, numbers.length - 1, from, to, result);
+    return result;
+  }
+
+  private void collectBuildNumbers(final int low, final int high, final long from, final long to, final List<Integer> result) {
+    if (low > high) {
+      return;
+    }
+    final int mid = (low + high) >>> 1;
+    if (maxEnds[mid] <= from) {
+      return;
+    }
+    // builds are numbered in the order they are started, so everything right
+    // of a build that started too late started too late as well
+    if (starts[mid] < to) {
+      collectBuildNumbers(mid + 1, high, from, to, result);
+      if (ends[mid] > from) {
+        result.add(numbers[mid]);
+      }
+    }
+    collectBuildNumbers(low, mid - 1, from, to, result);
+  }
+
+  private long initMaxEnds(final int low, final int high) {
+    if (low > high) {
+      return Long.MIN_VALUE;
+    }
+    final int mid = (low + high) >>> 1;
+    final long maxEnd = Math.max(ends[mid], Math.max(initMaxEnds(low, mid - 1), initMaxEnds(mid + 1, high)));
+    maxEnds[mid] = maxEnd;
+    return maxEnd;
+  }
+
+  private static int[] insert(final int[] array, final int index, final int value) {
+    final int[] copy = new int[array.length + 1];
+    System.arraycopy(array, 0, copy, 0, index);
+    copy[index] = value;
+    System.arraycopy(array, index, copy, index + 1, array.length - index);
+    return copy;
+  }
+
+  private static long[] insert(final long[] array, final int index, final long value) {
+    final long[] copy = new long[array.length + 1];
+    System.arraycopy(array, 0, copy, 0, index);
+    copy[index] = value;
+    System.arraycopy(array, index, copy, index + 1, array.length - index);
+    return copy;
+  }
+
+  private static int[] remove(final int[] array, final int index) {
+    final int[] copy = new int[array.length - 1];
+    System.arraycopy(array, 0, copy, 0, index);
+    System.arraycopy(array, index + 1, copy, index, array.length - index - 1);
+    return copy;
+  }
+
+  private static long[] remove(final long[] array, final int index) {
+    final long[] copy = new long[array.length - 1];
+    System.arraycopy(array, 0, copy, 0, index);
+    System.arraycopy(array, index + 1, copy, index, array.length - index - 1);
+    return copy;
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.timeline;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+import hudson.model.Result;
+import hudson.model.Run;
+
+/**
+ * Read-only view of the build timeline of a single job: one fixed-width record
+ * per build, ordered by build number, holding the start time, duration, result
+ * and building flag of the build. The header holds the longest duration of
+ * all builds and the number of the newest build the timeline has been updated
+ * with, even if that build has been removed since.
+ *
+ * <pre>
+ * header: int magic | int version | long maxDuration | int lastNumber
+ * record: int number | long start | long duration | byte result | byte building
+ * </pre>
+ */
+@Restricted(NoExternalUse.class)
+public final class BuildTimeline {
+  /* default */ static final int MAGIC = 0x43565442;
+  /* default */ static final int VERSION = 2;
+  /* default */ static final int HEADER_SIZE = 20;
+  /* default */ static final int RECORD_SIZE = 22;
+
+  private static final int MAX_DURATION_OFFSET = 8;
+  private static final int LAST_NUMBER_OFFSET = 16;
+  private static final int START_OFFSET = 4;
+  private static final int DURATION_OFFSET = 12;
+  private static final int RESULT_OFFSET = 20;
+  private static final int BUILDING_OFFSET = 21;
+
+  // events last at least 1sec, see CalendarEventFactory
+  /* default */ static final long MIN_DURATION = 1000;
+
+  private static final Result[] RESULTS = { Result.SUCCESS, Result.UNSTABLE, Result.FAILURE, Result.NOT_BUILT, Result.ABORTED };
+
+  private final ByteBuffer buffer;
+  private final int size;
+
+  /* default */ BuildTimeline(final ByteBuffer buffer) throws IOException {
+    if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+      throw new IOException("Unsupported build timeline format");
+    }
+    this.buffer = buffer;
+    this.size = (buffer.limit() - HEADER_SIZE) / RECORD_SIZE;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public long getMaxDuration() {
+    return buffer.getLong(MAX_DURATION_OFFSET);
+  }
+
+  public int getLastNumber() {
+    return buffer.getInt(LAST_NUMBER_OFFSET);
+  }
+
+  public int getNumber(final int index) {
+    return buffer.getInt(offset(index));
+  }
+
+  public long getStartTimeInMillis(final int index) {
+    return buffer.getLong(offset(index) + START_OFFSET);
+  }
+
+  public long getDuration(final int index) {
+    return buffer.getLong(offset(index) + DURATION_OFFSET);
+  }
+
+  public Result getResult(final int index) {
+    final byte ordinal = buffer.get(offset(index) + RESULT_OFFSET);
+    return ordinal >= 0 && ordinal < RESULTS.length ? RESULTS[ordinal] : null;
+  }
+
+  public boolean isBuilding(final int index) {
+    return buffer.get(offset(index) + BUILDING_OFFSET) != 0;
+  }
+
+  /**
+   * Returns the numbers of all builds that might overlap the given interval,
+   * newest first. Builds that are still marked as building are always returned
+   * if they started before the end of the interval, as their end is unknown.
+   *
+   * @param from Start of the interval in millis (inclusive)
+   * @param to   End of the interval in millis (exclusive)
+   * @return Build numbers of the candidates, newest first
+   */
+  public List<Integer> getBuildNumbers(final long from, final long to) {
+    final List<Integer> numbers = new ArrayList<>();
+    final long maxDuration = Math.max(getMaxDuration(), MIN_DURATION);
+    for (int index = indexOfLastStartBefore(to); index >= 0; index--) {
+      final long start = getStartTimeInMillis(index);
+      if (start + maxDuration <= from) {
+        break;
+      }
+      if (isBuilding(index) || start + Math.max(getDuration(index), MIN_DURATION) > from) {
+        numbers.add(getNumber(index));
+      }
+    }
+    return numbers;
+  }
+
+  /**
+   * Binary search for the build with the given number.
+   *
+   * @param number The build number
+   * @return Index of the build, or <code>(-(insertion point) - 1)</code>
+   */
+  public int indexOf(final int number) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int midNumber = getNumber(mid);
+      if (midNumber < number) {
+        low = mid + 1;
+      } else if (midNumber > number) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  private int indexOfLastStartBefore(final long timeInMillis) {
+    int low = 0;
+    int high = size - 1;
+    int found = -1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      if (getStartTimeInMillis(mid) < timeInMillis) {
+        found = mid;
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return found;
+  }
+
+  /* default */ ByteBuffer getRecord(final int index) {
+    return buffer.duplicate().position(offset(index)).limit(offset(index) + RECORD_SIZE).slice();
+  }
+
+  /* default */ static int offset(final int index) {
+    return HEADER_SIZE + index * RECORD_SIZE;
+  }
+
+  /* default */ static ByteBuffer header(final long maxDuration, final int lastNumber) {
+    final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    header.putInt(MAGIC).putInt(VERSION).putLong(maxDuration).putInt(lastNumber);
+    return header.flip();
+  }
+
+  /* default */ static ByteBuffer record(final Run build) {
+    final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    final Result result = build.getResult();
+    record.putInt(build.getNumber());
+    record.putLong(build.getStartTimeInMillis());
+    record.putLong(build.isBuilding() ? 0 : build.getDuration());
+    record.put((byte) (result == null ? -1 : result.ordinal));
+    record.put((byte) (build.isBuilding() ? 1 : 0));
+    return record.flip();
+  }
+}
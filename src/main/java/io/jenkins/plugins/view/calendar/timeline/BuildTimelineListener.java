@@ -0,0 +1,59 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.timeline;
+
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+
+/**
+ * Keeps the {@link BuildTimeline} and the {@link BuildIntervalIndex} of a job up
+ * to date while builds are started, finished and deleted.
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public class BuildTimelineListener extends RunListener<Run<?, ?>> {
+
+  @Override
+  public void onStarted(final Run<?, ?> build, final TaskListener listener) {
+    BuildTimelineStore.get().update(build);
+    BuildIntervalIndex.get().update(build);
+  }
+
+  @Override
+  public void onFinalized(final Run<?, ?> build) {
+    BuildTimelineStore.get().update(build);
+    BuildIntervalIndex.get().update(build);
+  }
+
+  @Override
+  public void onDeleted(final Run<?, ?> build) {
+    BuildTimelineStore.get().remove(build);
+    BuildIntervalIndex.get().remove(build);
+  }
+}
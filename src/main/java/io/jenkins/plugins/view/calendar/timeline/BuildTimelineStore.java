@@ -0,0 +1,514 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.timeline;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.log4j.Logger;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.util.AtmostOneThreadExecutor;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.util.SystemProperties;
+
+/**
+ * Keeps a {@link BuildTimeline} file next to the <code>config.xml</code> of
+ * every job, so that range queries over the build history can be answered
+ * without loading the builds themselves.
+ *
+ * <p>
+ * The file of a job is created the first time its timeline is requested, by
+ * reading the whole build history once in the background. From then on it is
+ * kept up to date by {@link BuildTimelineListener}. Since builds may also be
+ * started while it is not, e.g. while the plugin is disabled or if an update
+ * is lost on a crash, a timeline is only used once it has seen the last build
+ * of its job; otherwise the missing builds are appended in the background.
+ *
+ * <p>
+ * On controllers with many jobs and deep histories the timelines can be memory
+ * mapped instead of being read onto the heap for every request, by setting the
+ * system property
+ * <code>io.jenkins.plugins.view.calendar.timeline.BuildTimelineStore.memoryMapped=true</code>.
+ * Range queries then run directly on the mapped pages and the operating
+ * system's page cache decides what stays in memory. Mappings never leave the
+ * store, which drops them once their file is replaced or deleted or the job is
+ * gone, and the garbage collector releases them. Platforms that refuse to
+ * replace or delete files that are still mapped, like Windows, should keep the
+ * timelines on the heap.
+ */
+@Restricted(NoExternalUse.class)
+public final class BuildTimelineStore {
+  public static final String FILE_NAME = "calendar-view-timeline.bin";
+
+  private static final BuildTimelineStore INSTANCE = new BuildTimelineStore(SystemProperties.getBoolean(BuildTimelineStore.class.getName() + ".memoryMapped"));
+
+  private final boolean memoryMapped;
+  private final ConcurrentMap<Path, MappedTimeline> mappedTimelines = new ConcurrentHashMap<>();
+  private final ConcurrentMap<File, Object> locks = new ConcurrentHashMap<>();
+  private final Set<File> rebuilding = ConcurrentHashMap.newKeySet();
+  private final ExecutorService rebuildExecutor = new AtmostOneThreadExecutor(new NamingThreadFactory(new DaemonThreadFactory(), "CalendarView build timeline"));
+
+  /* default */ BuildTimelineStore(final boolean memoryMapped) {
+    this.memoryMapped = memoryMapped;
+  }
+
+  public static BuildTimelineStore get() {
+    return INSTANCE;
+  }
+
+  public boolean isMemoryMapped() {
+    return memoryMapped;
+  }
+
+  /**
+   * Returns the timeline of a job, or <code>null</code> if there is none yet or
+   * it is missing builds of the job. In that case the timeline is created or
+   * completed in the background and callers have to fall back to the build
+   * history for now.
+   *
+   * @param job The job
+   * @return The timeline of the job or <code>null</code>
+   */
+  public BuildTimeline getTimeline(final Job job) {
+    final File file = getFile(job);
+    if (file == null) {
+      return null;
+    }
+    final int lastNumber = getLastNumber(job);
+    synchronized (lock(file)) {
+      if (file.isFile()) {
+        try {
+          final BuildTimeline timeline = new BuildTimeline(ByteBuffer.wrap(Files.readAllBytes(file.toPath())));
+          if (timeline.getLastNumber() >= lastNumber) {
+            return timeline;
+          }
+        } catch (IOException e) {
+          Logger.getLogger(this.getClass()).warn("Unable to read build timeline " + file + ", recreating it", e);
+        }
+      }
+    }
+    scheduleRebuild(job, file);
+    return null;
+  }
+
+  /**
+   * Returns the numbers of all builds of a job that might overlap the given
+   * interval, newest first, see {@link BuildTimeline#getBuildNumbers(long, long)},
+   * or <code>null</code> if there is no timeline yet or it is missing builds of
+   * the job, see {@link #getTimeline(Job)}. The records are searched
+   * directly on the mapped pages, so this requires the timelines to be memory
+   * mapped; otherwise {@link BuildIntervalIndex} keeps the intervals itself.
+   *
+   * @param job  The job
+   * @param from Start of the interval in millis (inclusive)
+   * @param to   End of the interval in millis (exclusive)
+   * @return Build numbers, newest first, or <code>null</code>
+   */
+  public List<Integer> getBuildNumbers(final Job job, final long from, final long to) {
+    if (!memoryMapped) {
+      throw new IllegalStateException("Build timelines are not memory mapped");
+    }
+    final File file = getFile(job);
+    if (file == null) {
+      return null;
+    }
+    final int lastNumber = getLastNumber(job);
+    synchronized (lock(file)) {
+      if (file.isFile()) {
+        try {
+          final List<Integer> numbers = getMappedBuildNumbers(file.toPath(), from, to, lastNumber);
+          if (numbers != null) {
+            return numbers;
+          }
+        } catch (IOException e) {
+          Logger.getLogger(this.getClass()).warn("Unable to read build timeline " + file + ", recreating it", e);
+        }
+      }
+    }
+    scheduleRebuild(job, file);
+    return null;
+  }
+
+  /**
+   * Adds a build to the timeline of its job or updates it if it is already
+   * contained.
+   *
+   * @param build The build
+   */
+  public void update(final Run build) {
+    final File file = getFile(build.getParent());
+    if (file == null) {
+      return;
+    }
+    synchronized (lock(file)) {
+      if (!file.isFile()) {
+        return;
+      }
+      try {
+        upsert(file.toPath(), build);
+      } catch (IOException e) {
+        Logger.getLogger(this.getClass()).warn("Unable to update build timeline " + file + ", dropping it", e);
+        delete(file);
+      }
+    }
+  }
+
+  /**
+   * Removes a build from the timeline of its job.
+   *
+   * @param build The build
+   */
+  public void remove(final Run build) {
+    final File file = getFile(build.getParent());
+    if (file == null) {
+      return;
+    }
+    synchronized (lock(file)) {
+      if (!file.isFile()) {
+        return;
+      }
+      try {
+        final int index;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+          index = new TimelineFile(channel).indexOf(build.getNumber());
+        }
+        if (index >= 0) {
+          final BuildTimeline timeline = new BuildTimeline(ByteBuffer.wrap(Files.readAllBytes(file.toPath())));
+          final List<ByteBuffer> records = records(timeline);
+          records.remove(index);
+          write(file.toPath(), timeline.getMaxDuration(), timeline.getLastNumber(), records);
+        }
+      } catch (IOException e) {
+        Logger.getLogger(this.getClass()).warn("Unable to update build timeline " + file + ", dropping it", e);
+        delete(file);
+      }
+    }
+  }
+
+  private void scheduleRebuild(final Job job, final File file) {
+    if (rebuilding.add(file)) {
+      rebuildExecutor.submit(() -> {
+        try {
+          rebuild(job);
+        } finally {
+          rebuilding.remove(file);
+        }
+      });
+    }
+  }
+
+  /**
+   * Creates the timeline of a job from its whole build history, or appends the
+   * builds that were started since the timeline was last updated. Unlike the
+   * rebuilds scheduled by queries this runs on the calling thread.
+   *
+   * @param job The job
+   */
+  public void rebuild(final Job job) {
+    final File file = getFile(job);
+    final int lastNumber = readLastNumber(file);
+    if (lastNumber >= 0) {
+      append(job, file, lastNumber);
+      return;
+    }
+    final List<Run> builds = new ArrayList<>();
+    final List<Run> history = job.getBuilds();
+    for (final Run build : history) {
+      builds.add(build);
+    }
+    synchronized (lock(file)) {
+      // builds started while the history was read were skipped by the listener,
+      // builds finished in the meantime are written with their current state
+      final int newestNumber = builds.isEmpty() ? 0 : builds.get(0).getNumber();
+      for (Run build = job.getLastBuild(); build != null && build.getNumber() > newestNumber; build = build.getPreviousBuild()) {
+        builds.add(build);
+      }
+      builds.sort(Comparator.comparingInt(Run::getNumber));
+
+      long maxDuration = 0;
+      final List<ByteBuffer> records = new ArrayList<>(builds.size());
+      for (final Run build : builds) {
+        maxDuration = Math.max(maxDuration, build.getDuration());
+        records.add(BuildTimeline.record(build));
+      }
+      try {
+        write(file.toPath(), maxDuration, builds.isEmpty() ? 0 : builds.get(builds.size() - 1).getNumber(), records);
+      } catch (IOException e) {
+        Logger.getLogger(this.getClass()).warn("Unable to write build timeline " + file, e);
+      }
+    }
+  }
+
+  private void append(final Job job, final File file, final int lastNumber) {
+    final List<Run> builds = new ArrayList<>();
+    for (Run build = job.getLastBuild(); build != null && build.getNumber() > lastNumber; build = build.getPreviousBuild()) {
+      builds.add(build);
+    }
+    synchronized (lock(file)) {
+      if (!file.isFile()) {
+        return;
+      }
+      try {
+        for (int i = builds.size() - 1; i >= 0; i--) {
+          upsert(file.toPath(), builds.get(i));
+        }
+      } catch (IOException e) {
+        Logger.getLogger(this.getClass()).warn("Unable to update build timeline " + file + ", dropping it", e);
+        delete(file);
+      }
+    }
+  }
+
+  /**
+   * Reads the number of the newest build a timeline has seen, or returns
+   * <code>-1</code> if there is no valid timeline.
+   */
+  private int readLastNumber(final File file) {
+    synchronized (lock(file)) {
+      if (!file.isFile()) {
+        return -1;
+      }
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+        return new TimelineFile(channel).getLastNumber();
+      } catch (IOException e) {
+        Logger.getLogger(this.getClass()).debug("Unable to read build timeline " + file + ", recreating it", e);
+        return -1;
+      }
+    }
+  }
+
+  private static int getLastNumber(final Job job) {
+    final Run lastBuild = job.getLastBuild();
+    return lastBuild == null ? 0 : lastBuild.getNumber();
+  }
+
+  private List<Integer> getMappedBuildNumbers(final Path path, final long from, final long to, final int lastNumber) throws IOException {
+    // mappings stay valid while records are updated in place, they only have
+    // to be replaced once records were appended or the file was rewritten
+    final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    MappedTimeline mappedTimeline = mappedTimelines.get(path);
+    if (mappedTimeline == null || !mappedTimeline.isUpToDate(attributes)) {
+      // the mapping stays valid after the channel is closed
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        mappedTimeline = new MappedTimeline(attributes, channel.map(MapMode.READ_ONLY, 0, channel.size()));
+      }
+      mappedTimelines.put(path, mappedTimeline);
+    }
+    final BuildTimeline timeline = mappedTimeline.timeline;
+    return timeline.getLastNumber() >= lastNumber ? timeline.getBuildNumbers(from, to) : null;
+  }
+
+  private void upsert(final Path path, final Run build) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      final TimelineFile timelineFile = new TimelineFile(channel);
+      final int index = timelineFile.indexOf(build.getNumber());
+      final long maxDuration = Math.max(timelineFile.getMaxDuration(), build.getDuration());
+      final int lastNumber = Math.max(timelineFile.getLastNumber(), build.getNumber());
+      if (index >= 0 || -index - 1 == timelineFile.size()) {
+        channel.write(BuildTimeline.record(build), BuildTimeline.offset(index < 0 ? timelineFile.size() : index));
+        if (maxDuration > timelineFile.getMaxDuration() || lastNumber > timelineFile.getLastNumber()) {
+          channel.write(BuildTimeline.header(maxDuration, lastNumber), 0);
+        }
+        return;
+      }
+    }
+    // builds are hardly ever added out of order, just rewrite the whole file
+    final BuildTimeline timeline = new BuildTimeline(ByteBuffer.wrap(Files.readAllBytes(path)));
+    final int index = timeline.indexOf(build.getNumber());
+    final List<ByteBuffer> records = records(timeline);
+    records.add(-index - 1, BuildTimeline.record(build));
+    write(path, Math.max(timeline.getMaxDuration(), build.getDuration()), Math.max(timeline.getLastNumber(), build.getNumber()), records);
+  }
+
+  private static List<ByteBuffer> records(final BuildTimeline timeline) {
+    final List<ByteBuffer> records = new ArrayList<>(timeline.size() + 1);
+    for (int i = 0; i < timeline.size(); i++) {
+      records.add(timeline.getRecord(i));
+    }
+    return records;
+  }
+
+  private void write(final Path path, final long maxDuration, final int lastNumber, final List<ByteBuffer> records) throws IOException {
+    final Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      channel.write(BuildTimeline.header(maxDuration, lastNumber));
+      for (final ByteBuffer record : records) {
+        channel.write(record);
+      }
+    }
+    mappedTimelines.remove(path);
+    try {
+      Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      Files.deleteIfExists(tmp);
+      throw e;
+    }
+  }
+
+  private void delete(final File file) {
+    mappedTimelines.remove(file.toPath());
+    locks.remove(file);
+    if (!file.delete() && file.exists()) {
+      Logger.getLogger(this.getClass()).error("Unable to delete build timeline " + file);
+    }
+  }
+
+  /**
+   * Forgets the state kept for the timelines of jobs whose directory no
+   * longer exists, e.g. because they were deleted, renamed or moved.
+   */
+  public void prune() {
+    locks.keySet().removeIf(file -> !file.getParentFile().isDirectory());
+    mappedTimelines.keySet().removeIf(path -> !Files.isDirectory(path.getParent()));
+  }
+
+  /* default */ int getLockCount() {
+    return locks.size();
+  }
+
+  /* default */ int getMappedTimelineCount() {
+    return mappedTimelines.size();
+  }
+
+  private Object lock(final File file) {
+    return locks.computeIfAbsent(file, f -> new Object());
+  }
+
+  /**
+   * Searches the records of a timeline file with positioned reads, so that
+   * only the records that are actually needed are read.
+   */
+  private static final class TimelineFile {
+    private final FileChannel channel;
+    private final long maxDuration;
+    private final int lastNumber;
+    private final int size;
+
+    /* default */ TimelineFile(final FileChannel channel) throws IOException {
+      this.channel = channel;
+      // validates the header
+      final BuildTimeline header = new BuildTimeline(read(0, BuildTimeline.HEADER_SIZE));
+      this.maxDuration = header.getMaxDuration();
+      this.lastNumber = header.getLastNumber();
+      this.size = (int) ((channel.size() - BuildTimeline.HEADER_SIZE) / BuildTimeline.RECORD_SIZE);
+    }
+
+    /* default */ int size() {
+      return size;
+    }
+
+    /* default */ long getMaxDuration() {
+      return maxDuration;
+    }
+
+    /* default */ int getLastNumber() {
+      return lastNumber;
+    }
+
+    /**
+     * Binary search for the build with the given number.
+     *
+     * @param number The build number
+     * @return Index of the build, or <code>(-(insertion point) - 1)</code>
+     */
+    /* default */ int indexOf(final int number) throws IOException {
+      int low = 0;
+      int high = size - 1;
+      while (low <= high) {
+        final int mid = (low + high) >>> 1;
+        final int midNumber = read(BuildTimeline.offset(mid), Integer.BYTES).getInt(0);
+        if (midNumber < number) {
+          low = mid + 1;
+        } else if (midNumber > number) {
+          high = mid - 1;
+        } else {
+          return mid;
+        }
+      }
+      return -(low + 1);
+    }
+
+    private ByteBuffer read(final long position, final int length) throws IOException {
+      final ByteBuffer buffer = ByteBuffer.allocate(length);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, position + buffer.position()) < 0) {
+          throw new EOFException("Truncated build timeline");
+        }
+      }
+      return buffer.flip();
+    }
+  }
+
+  /**
+   * A mapped timeline together with the attributes of the file it maps, to
+   * tell whether the file has been replaced or records were appended since.
+   */
+  private static final class MappedTimeline {
+    private final Object fileKey;
+    private final long size;
+    private final long lastModified;
+    private final BuildTimeline timeline;
+
+    /* default */ MappedTimeline(final BasicFileAttributes attributes, final ByteBuffer buffer) throws IOException {
+      this.fileKey = attributes.fileKey();
+      this.size = attributes.size();
+      this.lastModified = attributes.lastModifiedTime().toMillis();
+      this.timeline = new BuildTimeline(buffer);
+    }
+
+    /* default */ boolean isUpToDate(final BasicFileAttributes attributes) {
+      if (fileKey == null) {
+        return size == attributes.size() && lastModified == attributes.lastModifiedTime().toMillis();
+      }
+      return size == attributes.size() && Objects.equals(fileKey, attributes.fileKey());
+    }
+  }
+
+  /* default */ static File getFile(final Job job) {
+    final File rootDir = job == null ? null : job.getRootDir();
+    return rootDir == null ? null : new File(rootDir, FILE_NAME);
+  }
+}
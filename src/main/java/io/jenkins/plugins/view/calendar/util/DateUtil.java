@@ -26,15 +26,27 @@ package io.jenkins.plugins.view.calendar.util;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
+import org.jvnet.localizer.Localizable;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
 
+import hudson.Messages;
+
 @Restricted(NoExternalUse.class)
 public final class DateUtil {
   public static final String FORMAT_DATE = "yyyy-MM-dd";
   public static final String FORMAT_DATETIME = "yyyy-MM-dd'T'HH:mm:ss";
 
+  private static final long ONE_SECOND = TimeUnit.SECONDS.toMillis(1);
+  private static final long ONE_MINUTE = TimeUnit.MINUTES.toMillis(1);
+  private static final long ONE_HOUR = TimeUnit.HOURS.toMillis(1);
+  private static final long ONE_DAY = TimeUnit.DAYS.toMillis(1);
+  private static final long ONE_MONTH = 30 * ONE_DAY;
+  private static final long ONE_YEAR = 365 * ONE_DAY;
+
   private DateUtil() {
   }
 
@@ -47,4 +59,54 @@ public final class DateUtil {
   public static Date parseDate(final String dateString) throws ParseException {
     return new SimpleDateFormat(FORMAT_DATE).parse(dateString);
   }
+
+  /**
+   * Renders a time span like {@link hudson.Util#getTimeSpanString(long)}, but
+   * in the given locale instead of the locale of the current request, e.g.
+   * on threads that serve no request.
+   */
+  @SuppressWarnings("PMD.CyclomaticComplexity")
+  public static String getTimeSpanString(final long duration, final Locale locale) {
+    final long years = duration / ONE_YEAR;
+    final long months = duration % ONE_YEAR / ONE_MONTH;
+    final long days = duration % ONE_YEAR % ONE_MONTH / ONE_DAY;
+    final long hours = duration % ONE_DAY / ONE_HOUR;
+    final long minutes = duration % ONE_HOUR / ONE_MINUTE;
+    final long seconds = duration % ONE_MINUTE / ONE_SECOND;
+    final long millis = duration % ONE_SECOND;
+
+    if (years > 0) {
+      return makeTimeSpanString(years, Messages._Util_year(years), Messages._Util_month(months), locale);
+    } else if (months > 0) {
+      return makeTimeSpanString(months, Messages._Util_month(months), Messages._Util_day(days), locale);
+    } else if (days > 0) {
+      return makeTimeSpanString(days, Messages._Util_day(days), Messages._Util_hour(hours), locale);
+    } else if (hours > 0) {
+      return makeTimeSpanString(hours, Messages._Util_hour(hours), Messages._Util_minute(minutes), locale);
+    } else if (minutes > 0) {
+      return makeTimeSpanString(minutes, Messages._Util_minute(minutes), Messages._Util_second(seconds), locale);
+    } else if (seconds >= 10) {
+      return Messages._Util_second(seconds).toString(locale);
+    } else if (seconds >= 1) {
+      // renders "1.2 sec"
+      return Messages._Util_second(seconds + (float) (millis / 100) / 10).toString(locale);
+    } else if (millis >= 100) {
+      // renders "0.12 sec"
+      return Messages._Util_second((float) (millis / 10) / 100).toString(locale);
+    }
+    return Messages._Util_millisecond(millis).toString(locale);
+  }
+
+  /**
+   * Renders how long ago something happened like
+   * {@link hudson.Util#getPastTimeString(long)}, but in the given locale.
+   */
+  public static String getPastTimeString(final long duration, final Locale locale) {
+    return Messages._Util_pastTime(getTimeSpanString(duration, locale)).toString(locale);
+  }
+
+  private static String makeTimeSpanString(final long bigUnit, final Localizable bigLabel, final Localizable smallLabel, final Locale locale) {
+    final String text = bigLabel.toString(locale);
+    return bigUnit < 10 ? text + ' ' + smallLabel.toString(locale) : text;
+  }
 }
@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+import org.apache.commons.text.StringEscapeUtils;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Writes JSON straight to a {@link Writer}, token by token, without building
+ * the document in memory first. Commas between the members of objects and
+ * arrays are inserted automatically.
+ */
+@Restricted(NoExternalUse.class)
+public final class JsonWriter {
+  private final Writer out;
+  private boolean[] hasMembers = new boolean[8];
+  private int depth;
+  private boolean afterName;
+
+  public JsonWriter(final Writer out) {
+    this.out = out;
+  }
+
+  public JsonWriter beginObject() throws IOException {
+    return begin('{');
+  }
+
+  public JsonWriter endObject() throws IOException {
+    return end('}');
+  }
+
+  public JsonWriter beginArray() throws IOException {
+    return begin('[');
+  }
+
+  public JsonWriter endArray() throws IOException {
+    return end(']');
+  }
+
+  public JsonWriter name(final String name) throws IOException {
+    beforeValue();
+    writeString(name);
+    out.write(':');
+    afterName = true;
+    return this;
+  }
+
+  public JsonWriter value(final String value) throws IOException {
+    beforeValue();
+    if (value == null) {
+      out.write("null");
+    } else {
+      writeString(value);
+    }
+    return this;
+  }
+
+  public JsonWriter value(final long value) throws IOException {
+    beforeValue();
+    out.write(Long.toString(value));
+    return this;
+  }
+
+  public JsonWriter value(final boolean value) throws IOException {
+    beforeValue();
+    out.write(value ? "true" : "false");
+    return this;
+  }
+
+  public JsonWriter flush() throws IOException {
+    out.flush();
+    return this;
+  }
+
+  private JsonWriter begin(final char bracket) throws IOException {
+    beforeValue();
+    out.write(bracket);
+    if (depth == hasMembers.length) {
+      hasMembers = Arrays.copyOf(hasMembers, depth * 2);
+    }
+    hasMembers[depth++] = false;
+    return this;
+  }
+
+  private JsonWriter end(final char bracket) throws IOException {
+    depth--;
+    out.write(bracket);
+    return this;
+  }
+
+  private void beforeValue() throws IOException {
+    if (afterName) {
+      afterName = false;
+      return;
+    }
+    if (depth > 0) {
+      if (hasMembers[depth - 1]) {
+        out.write(',');
+      }
+      hasMembers[depth - 1] = true;
+    }
+  }
+
+  private void writeString(final String value) throws IOException {
+    out.write('"');
+    out.write(StringEscapeUtils.escapeJson(value));
+    out.write('"');
+  }
+}
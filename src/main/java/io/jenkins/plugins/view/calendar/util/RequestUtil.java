@@ -46,4 +46,27 @@ public final class RequestUtil {
     cal.set(Calendar.HOUR, 0);
     return cal;
   }
+
+  /**
+   * Checks whether the <code>If-None-Match</code> header of a request contains
+   * the given entity tag, so that the request can be answered with
+   * <code>304 Not Modified</code>.
+   *
+   * @param req  The request
+   * @param etag The current entity tag, including its quotes
+   * @return <code>true</code> if the client already has the current entity
+   */
+  public static boolean isNotModified(final StaplerRequest2 req, final String etag) {
+    final String ifNoneMatch = req.getHeader("If-None-Match");
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (final String tag : ifNoneMatch.split(",")) {
+      final String trimmed = tag.trim();
+      if ("*".equals(trimmed) || etag.equals(trimmed) || etag.equals(trimmed.startsWith("W/") ? trimmed.substring(2) : null)) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
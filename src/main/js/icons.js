@@ -0,0 +1,40 @@
+/*
+ * The events response refers to icons by key and sends the markup of every
+ * icon once in a dictionary. Replaces the keys of all events with the markup,
+ * so every event shares the same string instead of a copy of its own.
+ */
+
+function resolveIcon(icons, entry) {
+  if (entry && entry.icon && icons[entry.icon] !== undefined) {
+    entry.icon = icons[entry.icon];
+  }
+}
+
+function resolveEntries(icons, event) {
+  resolveIcon(icons, event);
+  resolveIcon(icons, event.job);
+  resolveIcon(icons, event.previousStartedBuild);
+  resolveIcon(icons, event.nextStartedBuild);
+  (event.builds || []).forEach(function(build) {
+    resolveIcon(icons, build);
+  });
+}
+
+export function resolve(response) {
+  var icons = response.icons || {};
+  response.events.forEach(function(event) {
+    resolveEntries(icons, event);
+  });
+  return response.events;
+}
+
+/**
+ * The details of an event come with an icon dictionary of their own. Returns
+ * the details without it, ready to be merged into the event.
+ */
+export function resolveDetail(detail) {
+  var icons = detail.icons || {};
+  resolveEntries(icons, detail);
+  delete detail.icons;
+  return detail;
+}
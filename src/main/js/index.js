@@ -31,7 +31,10 @@ import '../css/index.css';
 
 import * as hashParams from './hash-params.js';
 import * as events from './events.js';
+import * as partial from './partial.js';
+import * as push from './push.js';
 import * as scroll from './scroll.js';
+import * as sync from './sync.js';
 
 const hashParamOptions = hashParams.parse(window.location.hash);
 
@@ -56,8 +59,17 @@ $(function() {
   root.style.setProperty('--result-scheduled-selected-color', CalendarViewOptions.resultsColors.scheduledSelected);
   root.style.setProperty('--result-scheduled-selected-text-color', CalendarViewOptions.resultsColors.scheduledSelectedText);
 
-  $('#calendar-view').fullCalendar({
-    events: 'events',
+  const $calendar = $('#calendar-view');
+  const resolveEvents = sync.resolve($calendar);
+  $calendar.fullCalendar({
+    events: {
+      url: 'events',
+      success: function(response) {
+        partial.show($calendar, response);
+        return resolveEvents(response);
+      },
+      error: sync.retry($calendar)
+    },
     defaultView: hashParamOptions['view'] || CalendarViewOptions.defaultView,
     defaultDate: hashParamOptions['date'] || moment(),
     header: {
@@ -129,4 +141,7 @@ $(function() {
       }
     }
   });
+  push.connect($calendar, function() {
+    sync.start($calendar);
+  });
 });
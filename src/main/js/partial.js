@@ -0,0 +1,57 @@
+/*
+ * Shows a hint if the server ran out of time collecting the events and
+ * skipped some jobs, which loads the events of those jobs on request and
+ * adds them to the events already shown.
+ */
+
+import $ from 'jquery';
+import * as sync from './sync.js';
+
+var $hint = null;
+
+export function hide() {
+  if ($hint !== null) {
+    $hint.remove();
+    $hint = null;
+  }
+}
+
+function rangeOf($calendar) {
+  var view = $calendar.fullCalendar('getView');
+  return view.start.format('YYYY-MM-DD') + '/' + view.end.format('YYYY-MM-DD');
+}
+
+function loadRemaining($calendar, response) {
+  var view = $calendar.fullCalendar('getView');
+  var range = rangeOf($calendar);
+  var params = {
+    start: view.start.format('YYYY-MM-DD'),
+    end: view.end.format('YYYY-MM-DD'),
+    job: response.skippedJobs
+  };
+  $.getJSON('events?' + $.param(params, true)).then(function(remaining) {
+    if (rangeOf($calendar) === range) {
+      sync.apply($calendar, $.extend({}, remaining, { delta: true, removed: [] }));
+      show($calendar, remaining);
+    }
+  }, function() {
+    show($calendar, response);
+  });
+}
+
+export function show($calendar, response) {
+  hide();
+  if (!response.truncated) {
+    return;
+  }
+  var $link = $('<a href="#"></a>').text(CalendarViewOptions.partialText.loadRemaining);
+  $link.on('click', function(e) {
+    e.preventDefault();
+    hide();
+    loadRemaining($calendar, response);
+  });
+  $hint = $('<div class="calendar-view-partial"></div>')
+    .text(CalendarViewOptions.partialText.message + ' ')
+    .append($link);
+  $calendar.before($hint);
+}
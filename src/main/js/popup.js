@@ -26,6 +26,7 @@ import $ from 'jquery';
 import moment from 'moment';
 import tippy from 'tippy.js';
 import * as events from './events.js';
+import * as icons from './icons.js';
 import * as scroll from './scroll.js';
 
 function head(event, options) {
@@ -38,6 +39,13 @@ function head(event, options) {
 }
 
 function body(event, view) {
+  if (event.state === 'scheduled' && event.summary) {
+    return $('<div class="tooltip-body"></div>')
+      .append($('<div class="tooltip-middle"></div>')
+        .append(buildInfo(event, view))
+        .append(buildHistory(event, view)))
+      .append(summary(event, view));
+  }
   if (event.state === 'scheduled') {
     return $('<div class="tooltip-body"></div>')
       .append($('<div class="tooltip-middle"></div>')
@@ -120,6 +128,47 @@ function prevAndNextBuild(event, view) {
   return $bottom.append('<div style="clear:both"></div>');
 }
 
+function summary(event, view) {
+  var $expandLink = $('<a class="expand" href="#"></a>').text(CalendarViewOptions.popupText.expandSummary);
+  $expandLink.click(function() {
+    events.unselect();
+    view.calendar.removeEvents(event.id);
+    view.calendar.renderEvents(expand(event));
+    return false;
+  });
+  return $('<div class="tooltip-bottom"></div>')
+    .append($('<span class="summary"></span>').text(event.summaryString))
+    .append(' ')
+    .append($expandLink);
+}
+
+export function expand(event) {
+  var start = moment(event.start);
+  var duration = Math.max(event.duration, 1000);
+  var className = $.isArray(event.className) ? event.className.join(' ') : event.className;
+  return event.summary.occurrences.map(function(offset) {
+    var occurrenceStart = moment(start).add(offset, 'minutes');
+    var id = event.id + '-' + offset;
+    return {
+      id: id,
+      title: event.title,
+      url: event.url,
+      icon: event.icon,
+      start: occurrenceStart.format('YYYY-MM-DDTHH:mm:ss'),
+      end: moment(occurrenceStart).add(duration, 'milliseconds').format('YYYY-MM-DDTHH:mm:ss'),
+      duration: event.duration,
+      state: event.state,
+      className: className.replace(' event-summary', '').replace('event-id-' + event.id, 'event-id-' + id),
+      parameters: event.parameters,
+      durationString: event.durationString,
+      builds: event.builds,
+      detailUrl: event.detailUrl,
+      detailLoaded: event.detailLoaded,
+      allDay: false
+    };
+  });
+}
+
 function build(build, view) {
   var $link = $('<a></a>').attr('href', build.url).text(build.title);
   var $dateLink = dateLink(build, view);
@@ -150,7 +199,35 @@ export function dom(event, view, options) {
     .append(body(event, view));
 }
 
+function loadDetail(event) {
+  if (!event.detailPromise) {
+    event.detailPromise = $.getJSON(event.detailUrl).then(function(detail) {
+      $.extend(event, icons.resolveDetail(detail), { detailLoaded: true });
+      return event;
+    });
+  }
+  return event.detailPromise;
+}
+
 export function open(options) {
+  var event = options.event;
+  if (!event.detailUrl || event.detailLoaded) {
+    show(options);
+    return;
+  }
+  loadDetail(event).then(function() {
+    if (events.hasSelected() === event.id) {
+      show($.extend({}, options, { target: events.getSelectedElement() || options.target }));
+    }
+  }, function() {
+    event.detailPromise = null;
+    if (events.hasSelected() === event.id) {
+      show(options);
+    }
+  });
+}
+
+function show(options) {
   var $popup = dom(options.event, options.view, {
     close: function() {
       events.unselect();
@@ -0,0 +1,78 @@
+/*
+ * Receives the start, progress and end of builds pushed by the server and
+ * applies them to the calendar in place, without fetching the events again.
+ */
+
+import $ from 'jquery';
+import * as events from './events.js';
+import * as icons from './icons.js';
+import * as popup from './popup.js';
+
+function update($calendar, message) {
+  icons.resolve(message).forEach(function(event) {
+    var existing = $calendar.fullCalendar('clientEvents', event.id);
+    if (existing.length > 0) {
+      $.each(existing, function(i, e) {
+        $.extend(e, event);
+        delete e.detailPromise;
+        delete e.detailLoaded;
+        $calendar.fullCalendar('updateEvent', e);
+      });
+    } else {
+      $calendar.fullCalendar('renderEvent', event);
+    }
+  });
+}
+
+function remove($calendar, message) {
+  if (message.removed.indexOf(events.hasSelected()) >= 0) {
+    popup.close();
+    events.unselect();
+  }
+  $calendar.fullCalendar('removeEvents', function(event) {
+    return message.removed.indexOf(event.id) >= 0;
+  });
+}
+
+export function apply($calendar, type, message) {
+  if (type === 'delete') {
+    remove($calendar, message);
+  } else if (type === 'resync') {
+    $calendar.fullCalendar('refetchEvents');
+  } else {
+    update($calendar, message);
+  }
+}
+
+/**
+ * Connects to the event stream of the view. Calls the fallback if the
+ * browser does not support server-sent events or the stream is closed for
+ * good. Builds pushed while the stream was interrupted are lost, e.g. when
+ * the server dropped a slow connection, so the events are fetched again
+ * once the browser has reconnected.
+ */
+export function connect($calendar, fallback) {
+  if (!window.EventSource) {
+    fallback();
+    return;
+  }
+  var source = new window.EventSource('eventStream');
+  ['start', 'progress', 'finish', 'delete', 'resync'].forEach(function(type) {
+    source.addEventListener(type, function(e) {
+      apply($calendar, type, JSON.parse(e.data));
+    });
+  });
+  var interrupted = false;
+  source.onopen = function() {
+    if (interrupted) {
+      interrupted = false;
+      $calendar.fullCalendar('refetchEvents');
+    }
+  };
+  source.onerror = function() {
+    interrupted = true;
+    if (source.readyState === window.EventSource.CLOSED) {
+      fallback();
+    }
+  };
+}
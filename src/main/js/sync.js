@@ -0,0 +1,88 @@
+/*
+ * Keeps a calendar that shows the current time up to date. Instead of
+ * fetching all events again, it sends the sync token of the last response
+ * and only receives the events that changed since then.
+ */
+
+import $ from 'jquery';
+import moment from 'moment';
+import * as events from './events.js';
+import * as icons from './icons.js';
+import * as popup from './popup.js';
+
+var SYNC_INTERVAL = 60 * 1000;
+
+var syncToken = null;
+var syncRange = null;
+
+function rangeOf(view) {
+  return { start: view.start.format('YYYY-MM-DD'), end: view.end.format('YYYY-MM-DD') };
+}
+
+function isSameRange(range, otherRange) {
+  return range !== null && otherRange !== null && range.start === otherRange.start && range.end === otherRange.end;
+}
+
+export function resolve($calendar) {
+  return function(response) {
+    syncToken = response.syncToken || null;
+    syncRange = rangeOf($calendar.fullCalendar('getView'));
+    return icons.resolve(response);
+  };
+}
+
+/**
+ * Fetches the events again once the server is ready, if it was too busy to
+ * collect them and answered with 503 Service Unavailable.
+ */
+export function retry($calendar) {
+  return function(xhr) {
+    if (xhr.status !== 503) {
+      return;
+    }
+    var seconds = parseInt(xhr.getResponseHeader('Retry-After'), 10) || 5;
+    setTimeout(function() {
+      $calendar.fullCalendar('refetchEvents');
+    }, seconds * 1000);
+  };
+}
+
+export function apply($calendar, response) {
+  var resolved = icons.resolve(response);
+  if (!response.delta) {
+    popup.close();
+    events.unselect();
+    $calendar.fullCalendar('removeEvents');
+    $calendar.fullCalendar('renderEvents', resolved);
+    return;
+  }
+  var ids = resolved.map(function(event) { return event.id; }).concat(response.removed);
+  if (ids.indexOf(events.hasSelected()) >= 0) {
+    popup.close();
+    events.unselect();
+  }
+  $calendar.fullCalendar('removeEvents', function(event) {
+    return ids.indexOf(event.id) >= 0;
+  });
+  $calendar.fullCalendar('renderEvents', resolved);
+}
+
+function sync($calendar) {
+  var view = $calendar.fullCalendar('getView');
+  var range = rangeOf(view);
+  if (!syncToken || !isSameRange(range, syncRange) || document.hidden || !moment().isBetween(view.start, view.end)) {
+    return;
+  }
+  $.getJSON('events', { start: range.start, end: range.end, since: syncToken }).then(function(response) {
+    if (isSameRange(range, syncRange) && isSameRange(range, rangeOf($calendar.fullCalendar('getView')))) {
+      syncToken = response.syncToken;
+      apply($calendar, response);
+    }
+  });
+}
+
+export function start($calendar) {
+  return setInterval(function() {
+    sync($calendar);
+  }, SYNC_INTERVAL);
+}
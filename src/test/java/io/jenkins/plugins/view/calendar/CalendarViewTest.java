@@ -24,10 +24,13 @@
 package io.jenkins.plugins.view.calendar;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.IOException;
+import java.time.LocalDate;
 
 import org.htmlunit.FailingHttpStatusCodeException;
 import org.htmlunit.html.HtmlButton;
@@ -40,6 +43,8 @@ import org.jvnet.hudson.test.JenkinsRule;
 import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
 import org.xml.sax.SAXException;
 
+import hudson.model.FreeStyleProject;
+
 @WithJenkins
 class CalendarViewTest {
 
@@ -54,6 +59,17 @@ class CalendarViewTest {
     assertDefaults(calendarView);
   }
 
+  @Test
+  void testConfigRoundtripForScheduledEventsSummaryThreshold(JenkinsRule j) throws Exception {
+    CalendarView calendarView = createCalendarView(j, "cal_summaryThreshold");
+
+    calendarView.setScheduledEventsSummaryThreshold(96);
+
+    j.configRoundtrip(calendarView);
+
+    assertThat(calendarView.getScheduledEventsSummaryThreshold(), equalTo(96));
+  }
+
   @Test
   void testConfigRoundtripForCustomWeekSettings(JenkinsRule j) throws Exception {
     CalendarView calendarView = createCalendarView(j, "cal_customWeekSettings");
@@ -219,6 +235,26 @@ class CalendarViewTest {
     assertThat(calendarView.getDayMaxTime(), equalTo("18:00:00"));
   }
 
+  @Test
+  void testEventsAreRenderedInLocaleOfRequest(JenkinsRule j) throws Exception {
+    FreeStyleProject project = j.createFreeStyleProject("localized");
+    j.buildAndAssertSuccess(project);
+
+    CalendarView calendarView = new CalendarView("cal_locale");
+    j.getInstance().addView(calendarView);
+    calendarView.add(project);
+
+    LocalDate today = LocalDate.now();
+    JenkinsRule.WebClient webClient = j.createWebClient();
+    webClient.addRequestHeader("Accept-Language", "de");
+    String json = webClient.goTo("view/cal_locale/events?start=" + today.minusDays(1) + "&end=" + today.plusDays(2), "application/json")
+        .getWebResponse().getContentAsString();
+
+    assertThat(json, containsString("gestartet"));
+    assertThat(json, containsString("Dauer: "));
+    assertThat(json, not(containsString("Duration: ")));
+  }
+
   @Test
   void testConfigValidation(JenkinsRule j) throws Exception {
     CalendarView calendarView = createCalendarView(j, "cal");
@@ -243,6 +279,12 @@ class CalendarViewTest {
     firstDayOption.setSelected(true);
     testValidation(configurePage);
 
+    configurePage = getConfigurePage(j, calendarView);
+    HtmlOption summaryThresholdOption = configurePage.querySelector("select[name='scheduledEventsSummaryThreshold'] option[value='24']");
+    summaryThresholdOption.setValueAttribute("25");
+    summaryThresholdOption.setSelected(true);
+    testValidation(configurePage);
+
     configurePage = getConfigurePage(j, calendarView);
     HtmlOption weekSlotDurationOption = configurePage.querySelector("select[name='weekSlotDuration'] option[value='00:05:00']");
     weekSlotDurationOption.setValueAttribute("00:25:00");
@@ -308,6 +350,7 @@ class CalendarViewTest {
   private static void assertDefaults(CalendarView calendarView) {
     assertThat(calendarView.getCalendarViewEventsType(), equalTo(CalendarView.CalendarViewEventsType.ALL));
     assertThat(calendarView.getCalendarViewType(), equalTo(CalendarView.CalendarViewType.WEEK));
+    assertThat(calendarView.getScheduledEventsSummaryThreshold(), equalTo(0));
 
     assertThat(calendarView.isUseCustomWeekSettings(), equalTo(false));
     assertThat(calendarView.isUseCustomFormats(), equalTo(false));
@@ -35,14 +35,19 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
 
 import java.text.ParseException;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
@@ -56,8 +61,11 @@ import hudson.model.BallColor;
 import hudson.model.FreeStyleProject;
 import hudson.model.HealthReport;
 import hudson.model.Job;
+import hudson.model.ParameterDefinition;
+import hudson.model.ParametersDefinitionProperty;
 import hudson.model.Result;
 import hudson.model.Run;
+import hudson.model.StringParameterValue;
 import hudson.model.TopLevelItem;
 import hudson.triggers.Trigger;
 import hudson.triggers.TriggerDescriptor;
@@ -113,6 +121,7 @@ class CalendarEventFactoryTest {
     assertThat(event.getState(), is(CalendarEventState.SCHEDULED));
     assertThat(event.getDuration(), is(duration));
     assertThat(event.getDurationString(), containsString("1 Minute"));
+    assertThat(event.getDurationString(Locale.ENGLISH), containsString("1 min"));
     assertThat(event.getUrl(), is("example/item/url/"));
     assertThat(event.getId(), is("example-item-url-1514764800000"));
     assertThat(event.getIconClassName(), is("symbol-weather-health-icon-class-name"));
@@ -223,6 +232,51 @@ class CalendarEventFactoryTest {
     assertDoesNotThrow(() -> getCalendarEventFactory(now).createScheduledEvent(item, null, start, hours(6)));
   }
 
+  @Test
+  void testDefaultParametersAreResolvedOncePerJob() throws ParseException {
+    ParameterDefinition definition = mock(ParameterDefinition.class);
+    when(definition.getDefaultParameterValue()).thenReturn(new StringParameterValue("BRANCH", "main"));
+    ParametersDefinitionProperty property = mock(ParametersDefinitionProperty.class);
+    when(property.getParameterDefinitions()).thenReturn(List.of(definition));
+    Job item = mock(Job.class);
+    when(item.getProperty(ParametersDefinitionProperty.class)).thenReturn(property);
+
+    CalendarEventFactory factory = getCalendarEventFactory(new Moment());
+    Map<String, String> lineParameters = Map.of("TARGET", "prod");
+    CalendarEvent event1 = factory.createScheduledEvent(item, lineParameters, cal("2018-01-01 00:00:00 UTC"), hours(1));
+    CalendarEvent event2 = factory.createScheduledEvent(item, lineParameters, cal("2018-01-01 01:00:00 UTC"), hours(1));
+    CalendarEvent event3 = factory.createScheduledEvent(item, Map.of("BRANCH", "release"), cal("2018-01-01 02:00:00 UTC"), hours(1));
+
+    assertThat(event1.getParameters(), is(Map.of("BRANCH", "main", "TARGET", "prod")));
+    assertThat(event2.getParameters(), is(sameInstance(event1.getParameters())));
+    assertThat(event3.getParameters(), is(Map.of("BRANCH", "release")));
+    verify(definition, times(1)).getDefaultParameterValue();
+  }
+
+  @Test
+  void testStartedEventDerivesFieldsLazily() throws ParseException {
+    Run build = mock(Run.class);
+    when(build.getStartTimeInMillis()).thenReturn(cal("2018-01-01 10:00:00 UTC").getTimeInMillis());
+    when(build.getDuration()).thenReturn(minutes(5));
+    when(build.getFullDisplayName()).thenReturn("Example #1");
+    when(build.getUrl()).thenReturn("job/Example/1/");
+    Job item = mock(Job.class);
+
+    StartedCalendarEvent event = getCalendarEventFactory(mom("2018-01-02 00:00:00 UTC")).createStartedEvent(item, build);
+    MomentRange range = MomentRange.range(mom("2018-01-01 11:00:00 UTC"), mom("2018-01-01 12:00:00 UTC"));
+
+    assertThat(event.isInRange(range), is(false));
+    verify(build, never()).getFullDisplayName();
+    verify(build, never()).getUrl();
+    verify(build, never()).getParameterValues();
+
+    assertThat(event.getTitle(), is("Example #1"));
+    assertThat(event.getTitle(), is("Example #1"));
+    assertThat(event.getUrl(), is("job/Example/1/"));
+    assertThat(event.getParameters().isEmpty(), is(true));
+    verify(build, times(1)).getFullDisplayName();
+  }
+
   @Test
   void testEventIsAtLeastOneSecondLong() throws ParseException {
     Calendar start = cal("2018-01-01 00:00:00 UTC");
@@ -0,0 +1,271 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.event;
+
+import static io.jenkins.plugins.view.calendar.test.CalendarUtil.mom;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.text.ParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.HealthReport;
+import hudson.model.Result;
+import io.jenkins.plugins.view.calendar.CalendarView.CalendarViewEventsType;
+import io.jenkins.plugins.view.calendar.service.JobMemo;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+class CalendarEventJsonWriterTest {
+
+  private static TimeZone defaultTimeZone;
+  private static Locale defaultLocale;
+
+  @BeforeAll
+  static void beforeClass() {
+    defaultTimeZone = TimeZone.getDefault();
+    TimeZone.setDefault(TimeZone.getTimeZone("CET"));
+    defaultLocale = Locale.getDefault();
+    Locale.setDefault(Locale.ENGLISH);
+  }
+
+  @AfterAll
+  static void afterClass() {
+    TimeZone.setDefault(defaultTimeZone);
+    Locale.setDefault(defaultLocale);
+  }
+
+  private static CalendarEventJsonWriter writer(StringWriter out) {
+    return writer(out, Locale.ENGLISH);
+  }
+
+  private static CalendarEventJsonWriter writer(StringWriter out, Locale locale) {
+    return new CalendarEventJsonWriter(out, "/jenkins", CalendarViewEventsType.ALL, (iconClassName, classes) -> "<svg class=\"" + classes + "\">" + iconClassName + "</svg>",
+        new JobMemo(), locale);
+  }
+
+  private static JSONObject write(List<? extends CalendarEvent> events) throws IOException {
+    StringWriter out = new StringWriter();
+    writer(out).write(events);
+    return JSONObject.fromObject(out.toString());
+  }
+
+  private static JSONObject writeDetail(CalendarEvent event) throws IOException {
+    StringWriter out = new StringWriter();
+    writer(out).writeDetail(event);
+    return JSONObject.fromObject(out.toString());
+  }
+
+  private static FreeStyleProject mockJob() {
+    FreeStyleProject job = mock(FreeStyleProject.class);
+    when(job.getFullName()).thenReturn("folder/job");
+    when(job.getFullDisplayName()).thenReturn("Folder \u00bb Job");
+    when(job.getUrl()).thenReturn("job/folder/job/job/");
+    when(job.getBuildHealth()).thenReturn(new HealthReport(100, "healthy"));
+    return job;
+  }
+
+  private static StartedCalendarEvent mockFinishedEvent(FreeStyleProject job, int number, String start, String end) throws ParseException {
+    FreeStyleBuild build = mock(FreeStyleBuild.class);
+    when(build.getNumber()).thenReturn(number);
+    when(build.getDisplayName()).thenReturn("#" + number);
+    when(build.getResult()).thenReturn(Result.UNSTABLE);
+
+    StartedCalendarEvent event = mock(StartedCalendarEvent.class);
+    when(event.getId()).thenReturn("job-folder-job-job-" + number);
+    when(event.getJob()).thenReturn(job);
+    when(event.getBuild()).thenReturn(build);
+    when(event.getTitle()).thenReturn("Folder \u00bb Job #" + number);
+    when(event.getUrl()).thenReturn("job/folder/job/job/" + number + "/");
+    when(event.getIconClassName()).thenReturn("symbol-status-yellow");
+    when(event.getStart()).thenReturn(mom(start));
+    when(event.getEnd()).thenReturn(mom(end));
+    when(event.getDuration()).thenReturn(60 * 1000L);
+    when(event.getState()).thenReturn(CalendarEventState.FINISHED);
+    when(event.getTimestampString(any(Locale.class))).thenReturn("2 hr");
+    when(event.getDurationString(any(Locale.class))).thenReturn("1 min");
+    when(event.getParameters()).thenReturn(Map.of());
+    return event;
+  }
+
+  @Test
+  void testFinishedEvent() throws Exception {
+    FreeStyleProject job = mockJob();
+    StartedCalendarEvent event = mockFinishedEvent(job, 2, "2018-01-01 10:00:00 CET", "2018-01-01 10:01:00 CET");
+    StartedCalendarEvent previousEvent = mockFinishedEvent(job, 1, "2018-01-01 09:00:00 CET", "2018-01-01 09:01:00 CET");
+    when(event.getPreviousStartedEvent()).thenReturn(previousEvent);
+    when(event.getParameters()).thenReturn(Map.of("quote", "\"value\""));
+
+    JSONObject response = write(List.of(event));
+    JSONArray events = response.getJSONArray("events");
+
+    assertThat(events.size(), is(1));
+    JSONObject json = events.getJSONObject(0);
+    assertThat(json.getString("id"), is("job-folder-job-job-2"));
+    assertThat(json.getString("title"), is("Folder \u00bb Job #2"));
+    assertThat(json.getString("url"), is("/jenkins/job/folder/job/job/2/"));
+    assertThat(json.getString("icon"), is("symbol-status-yellow icon-md"));
+    assertThat(json.getString("start"), is("2018-01-01T10:00:00"));
+    assertThat(json.getString("end"), is("2018-01-01T10:01:00"));
+    assertThat(json.getLong("duration"), is(60000L));
+    assertThat(json.getString("state"), is("finished"));
+    assertThat(json.getString("className"), is("event-result-unstable event-state-finished event-id-job-folder-job-job-2"));
+    assertThat(json.getJSONArray("parameters").getJSONObject(0).getString("value"), is("\"value\""));
+    assertThat(json.getString("timestampString"), is("Started 2 hr ago"));
+    assertThat(json.getString("durationString"), is("Duration: 1 min"));
+    assertThat(json.getString("detailUrl"), is("eventDetail?job=folder%2Fjob&build=2"));
+    assertThat(json.has("job"), is(false));
+    assertThat(json.has("previousStartedBuild"), is(false));
+    assertThat(json.getBoolean("allDay"), is(false));
+
+    JSONObject icons = response.getJSONObject("icons");
+    assertThat(icons.size(), is(1));
+    assertThat(icons.getString("symbol-status-yellow icon-md"), is("<svg class=\"icon-md\">symbol-status-yellow</svg>"));
+  }
+
+  @Test
+  void testFinishedEventInLocale() throws Exception {
+    StartedCalendarEvent event = mockFinishedEvent(mockJob(), 2, "2018-01-01 10:00:00 CET", "2018-01-01 10:01:00 CET");
+    when(event.getTimestampString(Locale.GERMAN)).thenReturn("2 Stunden");
+    when(event.getDurationString(Locale.GERMAN)).thenReturn("1 Minute");
+
+    StringWriter out = new StringWriter();
+    writer(out, Locale.GERMAN).write(List.of(event));
+    JSONObject json = JSONObject.fromObject(out.toString()).getJSONArray("events").getJSONObject(0);
+
+    assertThat(json.getString("timestampString"), is("Vor 2 Stunden gestartet"));
+    assertThat(json.getString("durationString"), is("Dauer: 1 Minute"));
+  }
+
+  @Test
+  void testFinishedEventDetail() throws Exception {
+    FreeStyleProject job = mockJob();
+    StartedCalendarEvent event = mockFinishedEvent(job, 2, "2018-01-01 10:00:00 CET", "2018-01-01 10:01:00 CET");
+    StartedCalendarEvent previousEvent = mockFinishedEvent(job, 1, "2018-01-01 09:00:00 CET", "2018-01-01 09:01:00 CET");
+    when(event.getPreviousStartedEvent()).thenReturn(previousEvent);
+
+    JSONObject json = writeDetail(event);
+
+    assertThat(json.getJSONObject("job").getString("title"), is("Folder \u00bb Job"));
+    assertThat(json.getJSONObject("job").getString("icon"), is("symbol-weather-icon-health-80plus icon-sm"));
+    assertThat(json.getJSONObject("previousStartedBuild").getString("title"), is("#1"));
+    assertThat(json.getJSONObject("previousStartedBuild").getString("start"), is("2018-01-01T09:00:00"));
+    assertThat(json.has("nextStartedBuild"), is(false));
+    assertThat(json.has("nextScheduledBuild"), is(false));
+    assertThat(json.has("builds"), is(false));
+
+    JSONObject icons = json.getJSONObject("icons");
+    assertThat(icons.size(), is(2));
+    assertThat(icons.getString("symbol-status-yellow icon-sm"), is("<svg class=\"icon-sm\">symbol-status-yellow</svg>"));
+    assertThat(icons.has("symbol-weather-icon-health-80plus icon-sm"), is(true));
+  }
+
+  @Test
+  void testScheduledSummaryEvent() throws Exception {
+    ScheduledSummaryCalendarEvent event = mock(ScheduledSummaryCalendarEvent.class);
+    when(event.getId()).thenReturn("job-folder-job-job-1514797200000");
+    when(event.getJob()).thenReturn(mockJob());
+    when(event.getTitle()).thenReturn("Folder \u00bb Job");
+    when(event.getUrl()).thenReturn("job/folder/job/job/");
+    when(event.getIconClassName()).thenReturn("symbol-weather-icon-health-80plus");
+    when(event.getStart()).thenReturn(mom("2018-01-01 10:00:00 CET"));
+    when(event.getEnd()).thenReturn(mom("2018-01-01 10:21:00 CET"));
+    when(event.getDuration()).thenReturn(-1L);
+    when(event.getState()).thenReturn(CalendarEventState.SCHEDULED);
+    when(event.getTimestampString(any(Locale.class))).thenReturn("3 hr");
+    when(event.getParameters()).thenReturn(Map.of());
+    when(event.getLastEvents()).thenReturn(List.of());
+    when(event.isSummary()).thenReturn(true);
+    when(event.getCount()).thenReturn(3);
+    when(event.getInterval()).thenReturn(10L);
+    when(event.getOccurrences()).thenReturn(List.of(0L, 10L, 20L));
+
+    JSONObject json = write(List.of(event)).getJSONArray("events").getJSONObject(0);
+
+    assertThat(json.getString("className"), is("event-result- event-state-scheduled event-summary event-id-job-folder-job-job-1514797200000"));
+    assertThat(json.getString("timestampString"), is("Starts in 3 hr"));
+    assertThat(json.getString("durationString"), is("Estimated duration: unknown"));
+    assertThat(json.getString("summaryString"), is("3 scheduled builds, every 10 minutes"));
+    assertThat(json.getJSONObject("summary").getJSONArray("occurrences").getLong(2), is(20L));
+    assertThat(json.getString("detailUrl"), is("eventDetail?job=folder%2Fjob&start=" + mom("2018-01-01 10:00:00 CET").getTimeInMillis()));
+    assertThat(json.has("builds"), is(false));
+
+    JSONObject detail = writeDetail(event);
+    assertThat(detail.getJSONArray("builds").size(), is(0));
+    assertThat(detail.has("job"), is(false));
+  }
+
+  @Test
+  void testDelta() throws Exception {
+    StartedCalendarEvent event = mockFinishedEvent(mockJob(), 2, "2018-01-01 10:00:00 CET", "2018-01-01 10:01:00 CET");
+
+    StringWriter out = new StringWriter();
+    writer(out).writeDelta(List.of(event), List.of("job-folder-job-job-1"), "3.1514797200000.abc");
+    JSONObject response = JSONObject.fromObject(out.toString());
+
+    assertThat(response.getBoolean("delta"), is(true));
+    assertThat(response.getJSONArray("events").getJSONObject(0).getString("id"), is("job-folder-job-job-2"));
+    assertThat(response.getJSONArray("removed").getString(0), is("job-folder-job-job-1"));
+    assertThat(response.getString("syncToken"), is("3.1514797200000.abc"));
+    assertThat(response.getJSONObject("icons").size(), is(1));
+  }
+
+  @Test
+  void testTruncated() throws Exception {
+    StartedCalendarEvent event = mockFinishedEvent(mockJob(), 2, "2018-01-01 10:00:00 CET", "2018-01-01 10:01:00 CET");
+
+    StringWriter out = new StringWriter();
+    writer(out).write(List.of(event), List.of("folder/other", "slow"), null);
+    JSONObject response = JSONObject.fromObject(out.toString());
+
+    assertThat(response.getJSONArray("events").size(), is(1));
+    assertThat(response.getBoolean("truncated"), is(true));
+    assertThat(response.getJSONArray("skippedJobs").getString(0), is("folder/other"));
+    assertThat(response.getJSONArray("skippedJobs").getString(1), is("slow"));
+  }
+
+  @Test
+  void testNoEvents() throws Exception {
+    JSONObject response = write(List.of());
+    assertThat(response.getJSONArray("events").size(), is(0));
+    assertThat(response.getJSONObject("icons").isEmpty(), is(true));
+    assertThat(response.has("syncToken"), is(false));
+    assertThat(response.has("delta"), is(false));
+    assertThat(response.has("truncated"), is(false));
+  }
+}
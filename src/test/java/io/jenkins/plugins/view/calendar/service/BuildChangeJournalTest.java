@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+
+class BuildChangeJournalTest {
+
+  private static FreeStyleBuild mockBuild(int number) {
+    FreeStyleProject project = mock(FreeStyleProject.class);
+    when(project.getFullName()).thenReturn("job");
+    FreeStyleBuild build = mock(FreeStyleBuild.class);
+    when(build.getParent()).thenReturn(project);
+    when(build.getNumber()).thenReturn(number);
+    when(build.getStartTimeInMillis()).thenReturn(number * 1000L);
+    return build;
+  }
+
+  private static List<Integer> numbersOf(List<BuildChangeJournal.Change> changes) {
+    return changes.stream().map(BuildChangeJournal.Change::getNumber).toList();
+  }
+
+  @Test
+  void testChangesSince() {
+    BuildChangeJournal journal = new BuildChangeJournal(3);
+    assertThat(journal.getSequence(), is(0L));
+    assertThat(journal.getChangesSince(0), is(empty()));
+
+    journal.add(mockBuild(1), false);
+    journal.add(mockBuild(2), false);
+    journal.add(mockBuild(1), true);
+
+    assertThat(journal.getSequence(), is(3L));
+    assertThat(numbersOf(journal.getChangesSince(0)), contains(1, 2, 1));
+    assertThat(numbersOf(journal.getChangesSince(2)), contains(1));
+    assertThat(journal.getChangesSince(2).get(0).isDeleted(), is(true));
+    assertThat(journal.getChangesSince(3), is(empty()));
+  }
+
+  @Test
+  void testChangesSinceDroppedChanges() {
+    BuildChangeJournal journal = new BuildChangeJournal(3);
+    for (int i = 1; i <= 5; i++) {
+      journal.add(mockBuild(i), false);
+    }
+
+    assertThat(journal.getChangesSince(1), is(nullValue()));
+    assertThat(numbersOf(journal.getChangesSince(2)), contains(3, 4, 5));
+    assertThat(journal.getChangesSince(6), is(nullValue()));
+    assertThat(journal.getChangesSince(-1), is(nullValue()));
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Item;
+import hudson.security.ACL;
+import io.jenkins.plugins.view.calendar.CalendarView;
+import io.jenkins.plugins.view.calendar.CalendarView.CalendarViewEventsType;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+
+class BuildEventStreamTest {
+
+  private BuildEventStream stream;
+  private CalendarView view;
+  private FreeStyleProject project;
+  private ACL acl;
+
+  @BeforeEach
+  void setUp() {
+    ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+    doAnswer(invocation -> {
+      ((Runnable) invocation.getArgument(0)).run();
+      return null;
+    }).when(executor).execute(any(Runnable.class));
+    stream = new BuildEventStream(executor, 2);
+
+    acl = mock(ACL.class);
+    when(acl.hasPermission2(any(Authentication.class), any())).thenReturn(true);
+    project = mock(FreeStyleProject.class);
+    when(project.getUrl()).thenReturn("job/project/");
+    when(project.getACL()).thenReturn(acl);
+    view = mock(CalendarView.class);
+    when(view.getCalendarViewEventsType()).thenReturn(CalendarViewEventsType.ALL);
+    when(view.contains(project)).thenReturn(true);
+  }
+
+  private TestOutputStream subscribe(Authentication auth) throws Exception {
+    return subscribe(auth, mock(AsyncContext.class));
+  }
+
+  private TestOutputStream subscribe(Authentication auth, AsyncContext async) throws Exception {
+    TestOutputStream out = new TestOutputStream();
+    ServletResponse response = mock(ServletResponse.class);
+    when(response.getOutputStream()).thenReturn(out);
+    when(async.getResponse()).thenReturn(response);
+    stream.subscribe(view, async, auth, Locale.ENGLISH, "/jenkins");
+    return out;
+  }
+
+  private FreeStyleBuild mockBuild(long startTimeInMillis) {
+    FreeStyleBuild build = mock(FreeStyleBuild.class);
+    when(build.getParent()).thenReturn(project);
+    when(build.getStartTimeInMillis()).thenReturn(startTimeInMillis);
+    return build;
+  }
+
+  @Test
+  void testPushesDeletedBuilds() throws Exception {
+    TestOutputStream out = subscribe(mock(Authentication.class));
+    assertThat(out.toString(), is("retry: 10000\n\n"));
+
+    stream.publish(mockBuild(1000L), "delete");
+
+    assertThat(out.toString(), containsString("event: delete\ndata: {\"removed\":[\"job-project-1000\"]}\n\n"));
+  }
+
+  @Test
+  void testPushesOnlyToPermittedUsers() throws Exception {
+    Authentication permitted = mock(Authentication.class);
+    Authentication forbidden = mock(Authentication.class);
+    when(acl.hasPermission2(forbidden, Item.READ)).thenReturn(false);
+    TestOutputStream permittedOut = subscribe(permitted);
+    TestOutputStream forbiddenOut = subscribe(forbidden);
+
+    stream.publish(mockBuild(1000L), "delete");
+
+    assertThat(permittedOut.toString(), containsString("job-project-1000"));
+    assertThat(forbiddenOut.toString(), not(containsString("job-project-1000")));
+  }
+
+  @Test
+  void testIgnoresJobsOfOtherViews() throws Exception {
+    TestOutputStream out = subscribe(mock(Authentication.class));
+    FreeStyleProject otherProject = mock(FreeStyleProject.class);
+    FreeStyleBuild build = mock(FreeStyleBuild.class);
+    when(build.getParent()).thenReturn(otherProject);
+
+    stream.publish(build, "delete");
+
+    assertThat(out.toString(), is("retry: 10000\n\n"));
+  }
+
+  @Test
+  void testDropsClosedResponses() throws Exception {
+    AsyncContext async = mock(AsyncContext.class);
+    TestOutputStream out = subscribe(mock(Authentication.class), async);
+    assertThat(stream.getSubscriberCount(), is(1));
+
+    out.closed = true;
+    stream.heartbeat();
+
+    assertThat(stream.getSubscriberCount(), is(0));
+    verify(async).complete();
+  }
+
+  @Test
+  void testDropsResponsesThatAreNotReady() throws Exception {
+    TestOutputStream out = subscribe(mock(Authentication.class));
+    AsyncContext slowAsync = mock(AsyncContext.class);
+    TestOutputStream slowOut = subscribe(mock(Authentication.class), slowAsync);
+    slowOut.ready = false;
+
+    stream.publish(mockBuild(1000L), "delete");
+
+    assertThat(out.toString(), containsString("job-project-1000"));
+    assertThat(slowOut.toString(), not(containsString("job-project-1000")));
+    assertThat(stream.getSubscriberCount(), is(1));
+    verify(slowAsync).complete();
+  }
+
+  /**
+   * A response that can be made busy or closed, and that can be written to
+   * as soon as its write listener is set.
+   */
+  private static class TestOutputStream extends ServletOutputStream {
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    boolean ready = true;
+    boolean closed;
+
+    @Override
+    public boolean isReady() {
+      return ready;
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+      try {
+        writeListener.onWritePossible();
+      } catch (IOException e) {
+        writeListener.onError(e);
+      }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      if (closed) {
+        throw new IOException("closed");
+      }
+      bytes.write(b);
+    }
+
+    @Override
+    public String toString() {
+      return bytes.toString(StandardCharsets.UTF_8);
+    }
+  }
+}
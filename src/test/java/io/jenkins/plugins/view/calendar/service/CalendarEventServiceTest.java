@@ -43,7 +43,12 @@ import static java.util.Arrays.asList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
 
@@ -61,10 +66,13 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.jvnet.hudson.test.Issue;
+import org.mockito.MockedStatic;
 
 import hudson.matrix.MatrixBuild;
 import hudson.matrix.MatrixProject;
 import hudson.model.AbstractProject;
+import hudson.model.Computer;
+import hudson.model.Executor;
 import hudson.model.FreeStyleBuild;
 import hudson.model.FreeStyleProject;
 import hudson.model.ItemGroup;
@@ -77,6 +85,7 @@ import io.jenkins.plugins.view.calendar.CalendarView.CalendarViewEventsType;
 import io.jenkins.plugins.view.calendar.event.CalendarEvent;
 import io.jenkins.plugins.view.calendar.event.CalendarEventState;
 import io.jenkins.plugins.view.calendar.event.ScheduledCalendarEvent;
+import io.jenkins.plugins.view.calendar.event.ScheduledSummaryCalendarEvent;
 import io.jenkins.plugins.view.calendar.event.StartedCalendarEvent;
 import io.jenkins.plugins.view.calendar.time.Moment;
 import io.jenkins.plugins.view.calendar.util.PluginUtil;
@@ -668,6 +677,47 @@ class CalendarEventServiceTest {
       assertThat(events.get(2).getStart(), is(mom("2018-01-03 21:48:00 CET")));
       assertThat(events.get(3).getStart(), is(mom("2018-01-04 21:48:00 CET")));
     }
+
+    @Test
+    void testSummary() throws ParseException {
+      Calendar start = cal("2018-01-01 12:00:00 CET");
+      Calendar end = cal("2018-01-03 00:00:00 CET");
+
+      FreeStyleProject project = mockScheduledFreeStyleProject("project", "*/10 * * * *", minutes(2));
+      Moment now = new Moment(cal("2018-01-01 00:00:00 CET"));
+      CalendarEventService calendarEventService = new CalendarEventService(now, new CronJobService(now), 24);
+
+      List<ScheduledCalendarEvent> events = calendarEventService.getScheduledEventsForward(List.of(project), range(start, end), range(start, end), CalendarViewEventsType.ALL);
+
+      assertThat(events, hasSize(2));
+      assertThat(events.get(0).isSummary(), is(true));
+      ScheduledSummaryCalendarEvent firstDay = (ScheduledSummaryCalendarEvent) events.get(0);
+      assertThat(firstDay.getStart(), is(mom("2018-01-01 12:00:00 CET")));
+      assertThat(firstDay.getEnd(), is(mom("2018-01-01 23:52:00 CET")));
+      assertThat(firstDay.getCount(), is(72));
+      assertThat(firstDay.getInterval(), is(10L));
+      assertThat(firstDay.getOccurrences().get(71), is(710L));
+      ScheduledSummaryCalendarEvent secondDay = (ScheduledSummaryCalendarEvent) events.get(1);
+      assertThat(secondDay.getStart(), is(mom("2018-01-02 00:00:00 CET")));
+      assertThat(secondDay.getCount(), is(144));
+    }
+
+    @Test
+    void testSummaryBelowThreshold() throws ParseException {
+      Calendar start = cal("2018-01-01 00:00:00 CET");
+      Calendar end = cal("2018-01-02 00:00:00 CET");
+
+      FreeStyleProject project = mockScheduledFreeStyleProject("project", "0 */2 * * *\n30 9 * * *", minutes(2));
+      Moment now = new Moment(cal("2017-12-31 00:00:00 CET"));
+      CalendarEventService calendarEventService = new CalendarEventService(now, new CronJobService(now), 24);
+
+      List<ScheduledCalendarEvent> events = calendarEventService.getScheduledEventsForward(List.of(project), range(start, end), range(start, end), CalendarViewEventsType.ALL);
+
+      assertThat(events, hasSize(13));
+      assertThat(events.get(0).isSummary(), is(false));
+      assertThat(events.get(11).getStart(), is(mom("2018-01-01 22:00:00 CET")));
+      assertThat(events.get(12).getStart(), is(mom("2018-01-01 09:30:00 CET")));
+    }
   }
 
   @Nested
@@ -817,6 +867,113 @@ class CalendarEventServiceTest {
       assertThat(getCalendarEventService().getRunningEvents(List.of(runningProjectWithFinishedBuild), range(start, end), CalendarViewEventsType.ALL), hasSize(0));
       assertThat(getCalendarEventService().getRunningEvents(List.of(finishedProjectWithRunningBuild), range(start, end), CalendarViewEventsType.ALL), hasSize(0));
     }
+
+    @Test
+    void testRunningBuildsFromExecutors() throws ParseException {
+      Calendar start = cal("2018-01-01 00:00:00 UTC");
+      Calendar end = cal("2018-01-05 00:00:00 UTC");
+
+      FreeStyleProject project = mockFreeStyleProject();
+      FreeStyleProject otherProject = mockFreeStyleProject();
+      FreeStyleBuild build = mockRunningFreeStyleBuild("build", "2018-01-01 12:00:00 UTC", minutes(10));
+      when(build.getParent()).thenReturn(project);
+      FreeStyleBuild otherBuild = mockRunningFreeStyleBuild("otherBuild", "2018-01-01 12:00:00 UTC", minutes(10));
+      when(otherBuild.getParent()).thenReturn(otherProject);
+
+      Executor executor = mock(Executor.class);
+      when(executor.getCurrentExecutable()).thenReturn(build);
+      Executor otherExecutor = mock(Executor.class);
+      when(otherExecutor.getCurrentExecutable()).thenReturn(otherBuild);
+      Computer computer = mock(Computer.class);
+      when(computer.getAllExecutors()).thenReturn(List.of(executor, otherExecutor, mock(Executor.class)));
+      Jenkins jenkins = mock(Jenkins.class);
+      when(jenkins.getComputers()).thenReturn(new Computer[] { computer });
+
+      try (MockedStatic<Jenkins> staticJenkins = mockStatic(Jenkins.class)) {
+        staticJenkins.when(Jenkins::getInstanceOrNull).thenReturn(jenkins);
+
+        List<StartedCalendarEvent> events = getCalendarEventService().getRunningEvents(List.of(project), range(start, end), CalendarViewEventsType.ALL);
+        assertThat(titlesOf(events), contains("build"));
+      }
+
+      verify(project, never()).getBuilds();
+      verify(otherBuild, never()).getStartTimeInMillis();
+    }
+
+    private FreeStyleProject mockProjectWithHourlyBuilds(FreeStyleBuild[] builds) throws ParseException {
+      long start = cal("2018-01-01 00:00:00 UTC").getTimeInMillis();
+      for (int i = 1; i < builds.length; i++) {
+        builds[i] = mockFinishedFreeStyleBuild("#" + i, "2018-01-01 00:00:00 UTC", minutes(10), Result.SUCCESS);
+        when(builds[i].getNumber()).thenReturn(i);
+        when(builds[i].getStartTimeInMillis()).thenReturn(start + hours(i));
+        if (i > 1) {
+          when(builds[i].getPreviousBuild()).thenReturn(builds[i - 1]);
+        }
+      }
+
+      FreeStyleProject project = mockFreeStyleProject();
+      when(project.getFirstBuild()).thenReturn(builds[1]);
+      when(project.getLastBuild()).thenReturn(builds[builds.length - 1]);
+      when(project.getNearestOldBuild(anyInt())).thenAnswer(invocation -> {
+        int number = invocation.getArgument(0);
+        return number < 1 ? null : builds[Math.min(number, builds.length - 1)];
+      });
+      return project;
+    }
+
+    @Test
+    void testOnlyLoadsBuildsNearRange() throws ParseException {
+      FreeStyleBuild[] builds = new FreeStyleBuild[101];
+      FreeStyleProject project = mockProjectWithHourlyBuilds(builds);
+
+      Calendar start = cal("2018-01-02 16:00:00 UTC");
+      Calendar end = cal("2018-01-02 18:30:00 UTC");
+
+      List<StartedCalendarEvent> events = getCalendarEventService().getFinishedEvents(List.of(project), range(start, end), CalendarViewEventsType.ALL);
+      assertThat(titlesOf(events), containsInAnyOrder("#40", "#41", "#42"));
+
+      verifyNoInteractions(builds[10], builds[38], builds[60], builds[90]);
+    }
+
+    @Test
+    void testStopsAtFirstBuildFinishedBeforeRange() throws ParseException {
+      Calendar start = cal("2018-01-02 00:00:00 UTC");
+      Calendar end = cal("2018-01-03 00:00:00 UTC");
+
+      FreeStyleBuild oldestBuild = mockFinishedFreeStyleBuild("oldest", "2018-01-01 10:00:00 UTC", minutes(10), Result.SUCCESS);
+      RunList<FreeStyleBuild> builds = mockBuilds(mockFinishedFreeStyleBuild("newest", "2018-01-02 10:00:00 UTC", minutes(10), Result.SUCCESS),
+          mockFinishedFreeStyleBuild("overlapping", "2018-01-01 23:55:00 UTC", minutes(10), Result.SUCCESS),
+          mockFinishedFreeStyleBuild("before", "2018-01-01 12:00:00 UTC", minutes(10), Result.SUCCESS), oldestBuild);
+
+      FreeStyleProject project = mockFreeStyleProject();
+      when(project.getBuilds()).thenReturn(builds);
+
+      List<StartedCalendarEvent> events = getCalendarEventService().getFinishedEvents(List.of(project), range(start, end), CalendarViewEventsType.ALL);
+      assertThat(titlesOf(events), containsInAnyOrder("newest", "overlapping"));
+
+      verifyNoInteractions(oldestBuild);
+    }
+
+    @Test
+    void testFindsOlderConcurrentBuildThatOutlastsNewerBuild() throws ParseException {
+      Calendar start = cal("2018-01-02 00:00:00 UTC");
+      Calendar end = cal("2018-01-03 00:00:00 UTC");
+
+      RunList<FreeStyleBuild> builds = mockBuilds(mockFinishedFreeStyleBuild("newer", "2018-01-01 23:00:00 UTC", minutes(10), Result.SUCCESS),
+          mockFinishedFreeStyleBuild("older", "2018-01-01 22:00:00 UTC", minutes(180), Result.SUCCESS),
+          mockFinishedFreeStyleBuild("oldest", "2018-01-01 10:00:00 UTC", minutes(10), Result.SUCCESS));
+
+      FreeStyleProject project = mockFreeStyleProject();
+      when(project.getBuilds()).thenReturn(builds);
+
+      List<StartedCalendarEvent> events = getCalendarEventService().getFinishedEvents(List.of(project), range(start, end), CalendarViewEventsType.ALL);
+      assertThat(events, hasSize(0));
+
+      when(project.isConcurrentBuild()).thenReturn(true);
+
+      events = getCalendarEventService().getFinishedEvents(List.of(project), range(start, end), CalendarViewEventsType.ALL);
+      assertThat(titlesOf(events), containsInAnyOrder("older"));
+    }
   }
 
   @Nested
@@ -1076,4 +1233,127 @@ class CalendarEventServiceTest {
           containsInAnyOrder("2018-01-01T10:00:00 - 2018-01-01T10:30:00: #1", "2018-01-01T16:00:00 - 2018-01-01T16:30:00: #1", "2018-01-01T22:00:00 - 2018-01-01T22:30:00: #1"));
     }
   }
+
+  @Nested
+  class GetChangedEventsTests {
+    @Test
+    void testChangedAndRemovedEvents() throws ParseException {
+      Calendar start = cal("2018-01-01 00:00:00 CET");
+      Calendar end = cal("2018-01-02 00:00:00 CET");
+      FreeStyleProject project = mockScheduledFreeStyleProject("project", "0 * * * *", minutes(10));
+      when(project.getUrl()).thenReturn("job/project/");
+      FreeStyleBuild build = mockFinishedFreeStyleBuild("project #2", "2018-01-01 10:30:00 CET", minutes(5), Result.SUCCESS);
+      when(project.getBuildByNumber(2)).thenReturn(build);
+      List<BuildChangeJournal.Change> changes = List.of(
+          new BuildChangeJournal.Change("project", 2, cal("2018-01-01 10:30:00 CET").getTimeInMillis(), false),
+          new BuildChangeJournal.Change("project", 1, cal("2018-01-01 09:30:00 CET").getTimeInMillis(), true),
+          new BuildChangeJournal.Change("other", 7, cal("2018-01-01 10:45:00 CET").getTimeInMillis(), false));
+      List<String> removedIds = new ArrayList<>();
+
+      List<CalendarEvent> events = getCalendarEventService(cal("2018-01-01 12:00:00 CET")).getChangedEvents(List.of(project), range(start, end),
+          CalendarViewEventsType.ALL, changes, mom("2018-01-01 10:00:00 CET"), removedIds);
+
+      assertThat(titlesOf(events), contains("project #2"));
+      assertThat(removedIds, hasItems("job-project-" + cal("2018-01-01 09:30:00 CET").getTimeInMillis(), "job-project-" + cal("2018-01-01 10:00:00 CET").getTimeInMillis(),
+          "job-project-" + cal("2018-01-01 11:00:00 CET").getTimeInMillis()));
+      assertThat(removedIds, not(hasItem("job-project-" + cal("2018-01-01 13:00:00 CET").getTimeInMillis())));
+    }
+
+    @Test
+    void testRemovedSummaries() throws ParseException {
+      Calendar start = cal("2018-01-01 00:00:00 CET");
+      Calendar end = cal("2018-01-02 00:00:00 CET");
+      FreeStyleProject project = mockScheduledFreeStyleProject("project", "*/10 * * * *", minutes(2));
+      when(project.getUrl()).thenReturn("job/project/");
+      Moment now = new Moment(cal("2018-01-01 12:00:00 CET"));
+      CalendarEventService calendarEventService = new CalendarEventService(now, new CronJobService(now), 24);
+      List<String> removedIds = new ArrayList<>();
+
+      List<CalendarEvent> events = calendarEventService.getChangedEvents(List.of(project), range(start, end), CalendarViewEventsType.ALL, List.of(),
+          mom("2018-01-01 10:00:00 CET"), removedIds);
+
+      assertThat(removedIds, contains("job-project-" + cal("2018-01-01 10:10:00 CET").getTimeInMillis()));
+      assertThat(events, hasSize(1));
+      ScheduledSummaryCalendarEvent summary = (ScheduledSummaryCalendarEvent) events.get(0);
+      assertThat(summary.getStart(), is(mom("2018-01-01 12:10:00 CET")));
+      assertThat(summary.getCount(), is(71));
+    }
+  }
+
+  @Nested
+  class GetCalendarEventsDeadlineTests {
+    @Test
+    void testJobsAreSkippedAfterDeadline() throws ParseException {
+      Calendar start = cal("2018-01-02 00:00:00 CET");
+      Calendar end = cal("2018-01-03 00:00:00 CET");
+      List<FreeStyleProject> projects = List.of(mockScheduledFreeStyleProject("b", "0 * * * *", minutes(10)),
+          mockScheduledFreeStyleProject("a", "0 * * * *", minutes(10)));
+
+      CalendarEventService calendarEventService = getCalendarEventService(cal("2018-01-01 12:00:00 CET"));
+      calendarEventService.setDeadline(1);
+      List<CalendarEvent> events = calendarEventService.getCalendarEvents(projects, range(start, end), CalendarViewEventsType.ALL);
+
+      assertThat(events, is(empty()));
+      assertThat(calendarEventService.getSkippedJobs(), contains("a", "b"));
+    }
+
+    @Test
+    void testNoJobsAreSkippedBeforeDeadline() throws ParseException {
+      Calendar start = cal("2018-01-02 00:00:00 CET");
+      Calendar end = cal("2018-01-03 00:00:00 CET");
+      List<FreeStyleProject> projects = List.of(mockScheduledFreeStyleProject("a", "0 * * * *", minutes(10)));
+
+      CalendarEventService calendarEventService = getCalendarEventService(cal("2018-01-01 12:00:00 CET"));
+      calendarEventService.setDeadline(System.currentTimeMillis() + 60 * 60 * 1000L);
+      List<CalendarEvent> events = calendarEventService.getCalendarEvents(projects, range(start, end), CalendarViewEventsType.ALL);
+
+      assertThat(events, is(not(empty())));
+      assertThat(calendarEventService.getSkippedJobs(), is(empty()));
+    }
+  }
+
+  @Nested
+  class GetFingerprintTests {
+    @Test
+    void testFingerprintChangesWithBuilds() throws ParseException {
+      Calendar now = cal("2018-01-01 12:00:30 CET");
+      Calendar start = cal("2018-01-01 00:00:00 CET");
+      Calendar end = cal("2018-01-02 00:00:00 CET");
+      FreeStyleProject project = mockFinishedFreeStyleProject("project", "2018-01-01 10:00:00 CET", minutes(30));
+      FreeStyleBuild lastBuild = mockFinishedFreeStyleBuild("project", "2018-01-01 10:00:00 CET", minutes(30), Result.SUCCESS);
+      when(lastBuild.getNumber()).thenReturn(1);
+      when(project.getLastBuild()).thenReturn(lastBuild);
+      List<FreeStyleProject> projects = List.of(project);
+
+      long fingerprint = getCalendarEventService(now).getFingerprint(projects, range(start, end));
+      assertThat(getCalendarEventService(cal("2018-01-01 12:00:50 CET")).getFingerprint(projects, range(start, end)), is(fingerprint));
+      assertThat(getCalendarEventService(cal("2018-01-01 12:01:00 CET")).getFingerprint(projects, range(start, end)), is(not(fingerprint)));
+      assertThat(getCalendarEventService(now).getFingerprint(projects, range(start, cal("2018-01-03 00:00:00 CET"))), is(not(fingerprint)));
+
+      when(project.isBuilding()).thenReturn(true);
+      long buildingFingerprint = getCalendarEventService(now).getFingerprint(projects, range(start, end));
+      assertThat(buildingFingerprint, is(not(fingerprint)));
+
+      when(lastBuild.getNumber()).thenReturn(2);
+      assertThat(getCalendarEventService(now).getFingerprint(projects, range(start, end)), is(not(buildingFingerprint)));
+    }
+
+    @Test
+    void testFingerprintOfPastRangeChangesHourly() throws ParseException {
+      Calendar start = cal("2018-01-01 00:00:00 CET");
+      Calendar end = cal("2018-01-02 00:00:00 CET");
+      List<FreeStyleProject> projects = List.of(mockFinishedFreeStyleProject("project", "2018-01-01 10:00:00 CET", minutes(30)));
+
+      Jenkins jenkins = mock(Jenkins.class);
+      when(jenkins.getComputers()).thenReturn(new Computer[0]);
+
+      try (MockedStatic<Jenkins> staticJenkins = mockStatic(Jenkins.class)) {
+        staticJenkins.when(Jenkins::getInstanceOrNull).thenReturn(jenkins);
+
+        long fingerprint = getCalendarEventService(cal("2018-01-03 12:00:00 CET")).getFingerprint(projects, range(start, end));
+        assertThat(getCalendarEventService(cal("2018-01-03 12:59:00 CET")).getFingerprint(projects, range(start, end)), is(fingerprint));
+        assertThat(getCalendarEventService(cal("2018-01-03 13:00:00 CET")).getFingerprint(projects, range(start, end)), is(not(fingerprint)));
+      }
+    }
+  }
 }
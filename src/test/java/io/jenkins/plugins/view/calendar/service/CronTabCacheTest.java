@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import hudson.scheduler.CronTab;
+import hudson.triggers.Trigger;
+import io.jenkins.plugins.view.calendar.CalendarView.CalendarViewEventsType;
+
+class CronTabCacheTest {
+
+  private CronTabCache cache;
+  private AtomicInteger parsed;
+  private Supplier<List<CronWrapper<?>>> parser;
+
+  @BeforeEach
+  void setUp() {
+    cache = new CronTabCache();
+    parsed = new AtomicInteger();
+    parser = () -> {
+      parsed.incrementAndGet();
+      List<CronWrapper<?>> cronTabs = new ArrayList<>();
+      cronTabs.add(new CronWrapper.ClassicCronTab(new CronTab("0 * * * *")));
+      return cronTabs;
+    };
+  }
+
+  private static Trigger mockTrigger(String spec) {
+    Trigger trigger = mock(Trigger.class);
+    when(trigger.getSpec()).thenReturn(spec);
+    return trigger;
+  }
+
+  @Test
+  void testParsesOnlyOnce() {
+    List<Trigger> triggers = List.of(mockTrigger("0 * * * *"));
+
+    List<CronWrapper<?>> cronTabs = cache.getCronTabs("job", CalendarViewEventsType.ALL, triggers, parser);
+
+    assertThat(cache.getCronTabs("job", CalendarViewEventsType.ALL, triggers, parser), is(sameInstance(cronTabs)));
+    assertThat(parsed.get(), is(1));
+
+    cache.getCronTabs("job", CalendarViewEventsType.BUILDS, triggers, parser);
+    cache.getCronTabs("otherJob", CalendarViewEventsType.ALL, triggers, parser);
+    assertThat(parsed.get(), is(3));
+  }
+
+  @Test
+  void testParsesAgainWhenTriggersChange() {
+    Trigger trigger = mockTrigger("0 * * * *");
+    cache.getCronTabs("job", CalendarViewEventsType.ALL, List.of(trigger), parser);
+
+    cache.getCronTabs("job", CalendarViewEventsType.ALL, List.of(mockTrigger("0 * * * *")), parser);
+    assertThat(parsed.get(), is(2));
+
+    cache.getCronTabs("job", CalendarViewEventsType.ALL, List.of(trigger), parser);
+    assertThat(parsed.get(), is(3));
+
+    when(trigger.getSpec()).thenReturn("5 * * * *");
+    cache.getCronTabs("job", CalendarViewEventsType.ALL, List.of(trigger), parser);
+    assertThat(parsed.get(), is(4));
+  }
+
+  @Test
+  void testInvalidate() {
+    List<Trigger> triggers = List.of(mockTrigger("0 * * * *"));
+    cache.getCronTabs("folder/job", CalendarViewEventsType.ALL, triggers, parser);
+    cache.getCronTabs("folder2/job", CalendarViewEventsType.ALL, triggers, parser);
+
+    cache.invalidate("folder");
+
+    cache.getCronTabs("folder/job", CalendarViewEventsType.ALL, triggers, parser);
+    cache.getCronTabs("folder2/job", CalendarViewEventsType.ALL, triggers, parser);
+    assertThat(parsed.get(), is(3));
+  }
+}
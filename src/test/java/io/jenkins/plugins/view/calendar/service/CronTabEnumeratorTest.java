@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import static io.jenkins.plugins.view.calendar.test.CalendarUtil.cal;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import hudson.scheduler.CronTab;
+import hudson.scheduler.Hash;
+
+class CronTabEnumeratorTest {
+
+  private static TimeZone defaultTimeZone;
+
+  @BeforeAll
+  static void beforeClass() {
+    defaultTimeZone = TimeZone.getDefault();
+    TimeZone.setDefault(TimeZone.getTimeZone("CET"));
+  }
+
+  @AfterAll
+  static void afterClass() {
+    TimeZone.setDefault(defaultTimeZone);
+  }
+
+  private static List<Long> ceilOccurrences(CronTab cronTab, long from, long to) {
+    List<Long> occurrences = new ArrayList<>();
+    long timeInMillis = from;
+    while (true) {
+      Calendar next = cronTab.ceil(timeInMillis);
+      next.set(Calendar.SECOND, 0);
+      next.set(Calendar.MILLISECOND, 0);
+      if (next.getTimeInMillis() > to) {
+        return occurrences;
+      }
+      occurrences.add(next.getTimeInMillis());
+      timeInMillis = next.getTimeInMillis() + 60 * 1000;
+    }
+  }
+
+  private static List<Long> enumeratedOccurrences(CronTab cronTab, long from, long to) {
+    List<Long> occurrences = new ArrayList<>();
+    CronTabEnumerator.of(cronTab).forEach(from, to, occurrences::add);
+    return occurrences;
+  }
+
+  @Test
+  void testSameOccurrencesAsCeil() throws ParseException {
+    for (String spec : List.of("* * * * *", "*/7 * * * *", "H H * * *", "30 2 * * *", "0 9-17 * * 1-5", "H/15 8,20 1,15,31 * *", "0 0 * 3 0,7", "45 23 29 2 *")) {
+      CronTab cronTab = new CronTab(spec, Hash.from("job"));
+      // spans the switch to and from daylight saving time
+      long from = cal("2018-03-20 10:15:00 UTC").getTimeInMillis();
+      long to = cal("2018-04-05 00:00:00 UTC").getTimeInMillis();
+      assertThat(spec, enumeratedOccurrences(cronTab, from, to), equalTo(ceilOccurrences(cronTab, from, to)));
+
+      from = cal("2018-10-25 00:00:00 UTC").getTimeInMillis();
+      to = cal("2018-10-30 12:00:00 UTC").getTimeInMillis();
+      assertThat(spec, enumeratedOccurrences(cronTab, from, to), equalTo(ceilOccurrences(cronTab, from, to)));
+    }
+  }
+
+  @Test
+  void testStopsWhenActionReturnsFalse() throws ParseException {
+    CronTab cronTab = new CronTab("0 * * * *");
+    List<Long> occurrences = new ArrayList<>();
+    CronTabEnumerator.of(cronTab).forEach(cal("2018-01-01 00:00:00 CET").getTimeInMillis(), cal("2018-02-01 00:00:00 CET").getTimeInMillis(), timeInMillis -> {
+      occurrences.add(timeInMillis);
+      return occurrences.size() < 3;
+    });
+
+    assertThat(occurrences, hasSize(3));
+    assertThat(occurrences, contains(cal("2018-01-01 00:00:00 CET").getTimeInMillis(), cal("2018-01-01 01:00:00 CET").getTimeInMillis(),
+        cal("2018-01-01 02:00:00 CET").getTimeInMillis()));
+  }
+
+  @Test
+  void testRoundsStartDownToTheMinute() throws ParseException {
+    CronTab cronTab = new CronTab("0 * * * *");
+    long from = cal("2018-01-01 00:00:30 CET").getTimeInMillis();
+    long to = cal("2018-01-01 00:59:00 CET").getTimeInMillis();
+
+    assertThat(enumeratedOccurrences(cronTab, from, to), contains(cal("2018-01-01 00:00:00 CET").getTimeInMillis()));
+  }
+
+  @Test
+  void testCronTabWithTimeZone() {
+    assertThat(CronTabEnumerator.of(new CronTab("0 * * * *", Hash.from("job"), "UTC")), nullValue());
+    assertThat(CronTabEnumerator.of(new CronTab("0 * * * *")), notNullValue());
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+class EventsExecutorTest {
+
+  private EventsExecutor executor;
+  private CountDownLatch release;
+
+  @BeforeEach
+  void setUp() {
+    executor = new EventsExecutor(1, 2, 2);
+    release = new CountDownLatch(1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    executor.shutdown();
+  }
+
+  private Runnable blocking() {
+    return () -> {
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    };
+  }
+
+  @Test
+  void testRejectsUserOverLimit() {
+    assertThat(executor.submit("alice", blocking()), is(true));
+    assertThat(executor.submit("alice", blocking()), is(true));
+    assertThat(executor.submit("alice", blocking()), is(false));
+    assertThat(executor.submit("bob", blocking()), is(true));
+  }
+
+  @Test
+  void testRejectsWhenQueueIsFull() {
+    assertThat(executor.submit("alice", blocking()), is(true));
+    assertThat(executor.submit("bob", blocking()), is(true));
+    assertThat(executor.submit("carol", blocking()), is(true));
+    assertThat(executor.submit("dave", blocking()), is(false));
+    // a rejected request does not count against the limit of its user
+    assertThat(executor.submit("dave", blocking()), is(false));
+    release.countDown();
+  }
+
+  @Test
+  void testAdmitsAgainAfterCompletion() throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(2);
+    assertThat(executor.submit("alice", done::countDown), is(true));
+    assertThat(executor.submit("alice", done::countDown), is(true));
+    assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+
+    // the count of the user is released after the task has run
+    long deadline = System.currentTimeMillis() + 10_000;
+    boolean admitted = false;
+    while (!admitted && System.currentTimeMillis() < deadline) {
+      admitted = executor.submit("alice", () -> { });
+      if (!admitted) {
+        Thread.sleep(10);
+      }
+    }
+    assertThat(admitted, is(true));
+  }
+
+  @Test
+  void testReleasesUserWhenTaskFails() throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(1);
+    assertThat(executor.submit("alice", () -> {
+      done.countDown();
+      throw new IllegalStateException();
+    }), is(true));
+    assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+
+    long deadline = System.currentTimeMillis() + 10_000;
+    int admitted = 0;
+    while (admitted < 2 && System.currentTimeMillis() < deadline) {
+      if (executor.submit("alice", blocking())) {
+        admitted++;
+      } else {
+        Thread.sleep(10);
+      }
+    }
+    assertThat(admitted, is(2));
+  }
+
+  @Test
+  void testCountsAnonymousRequestsPerRemoteAddress() {
+    AnonymousAuthenticationToken anonymous = new AnonymousAuthenticationToken("anonymous", "anonymous",
+        List.of(new SimpleGrantedAuthority("anonymous")));
+    UsernamePasswordAuthenticationToken alice = new UsernamePasswordAuthenticationToken("alice", null);
+
+    assertThat(EventsExecutor.getRequester(alice, "10.0.0.1"), is("alice"));
+    assertThat(EventsExecutor.getRequester(alice, "10.0.0.2"), is("alice"));
+    assertThat(EventsExecutor.getRequester(anonymous, "10.0.0.1"), is(not(EventsExecutor.getRequester(anonymous, "10.0.0.2"))));
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import static io.jenkins.plugins.view.calendar.test.TestUtil.mockFreeStyleProject;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import hudson.model.FreeStyleProject;
+import hudson.model.Job;
+
+class JobCollectorTest {
+
+  private ForkJoinPool pool;
+
+  @BeforeEach
+  void setUp() {
+    pool = new ForkJoinPool(4);
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdownNow();
+  }
+
+  private static List<Job> mockJobs(int count) {
+    List<Job> jobs = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      FreeStyleProject project = mockFreeStyleProject();
+      when(project.getFullName()).thenReturn("job" + i);
+      jobs.add(project);
+    }
+    return jobs;
+  }
+
+  @Test
+  void testCollectKeepsOrderOfJobs() {
+    List<Job> jobs = mockJobs(200);
+    Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    List<String> names = JobCollector.collect(jobs, (job, values) -> {
+      threads.add(Thread.currentThread().getName());
+      values.add(job.getFullName());
+      values.add(job.getFullName() + "/again");
+    }, pool);
+
+    List<String> expected = new ArrayList<>();
+    for (Job job : jobs) {
+      expected.add(job.getFullName());
+      expected.add(job.getFullName() + "/again");
+    }
+    assertThat(names, equalTo(expected));
+    assertThat(threads, not(hasItem(Thread.currentThread().getName())));
+  }
+
+  @Test
+  void testCollectFewJobs() {
+    List<String> names = JobCollector.collect(mockJobs(3), (job, values) -> values.add(job.getFullName()), pool);
+
+    assertThat(names, hasSize(3));
+  }
+}
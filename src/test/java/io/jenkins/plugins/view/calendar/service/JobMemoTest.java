@@ -0,0 +1,72 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+
+import hudson.model.FreeStyleProject;
+import hudson.model.HealthReport;
+
+class JobMemoTest {
+
+  @Test
+  void testValuesAreComputedOncePerJob() {
+    FreeStyleProject project = mock(FreeStyleProject.class);
+    FreeStyleProject other = mock(FreeStyleProject.class);
+    HealthReport health = new HealthReport();
+    when(project.getBuildHealth()).thenReturn(health);
+    when(project.getEstimatedDuration()).thenReturn(1000L);
+    JobMemo memo = new JobMemo();
+
+    assertThat(memo.getBuildHealth(project), is(sameInstance(health)));
+    assertThat(memo.getBuildHealth(project), is(sameInstance(health)));
+    assertThat(memo.getEstimatedDuration(project), is(1000L));
+    assertThat(memo.getEstimatedDuration(project), is(1000L));
+    memo.getBuildHealth(other);
+
+    verify(project, times(1)).getBuildHealth();
+    verify(project, times(1)).getEstimatedDuration();
+    verify(other, times(1)).getBuildHealth();
+  }
+
+  @Test
+  void testNullIsRemembered() {
+    FreeStyleProject project = mock(FreeStyleProject.class);
+    JobMemo memo = new JobMemo();
+
+    assertThat(memo.getLastCompletedBuild(project), is(nullValue()));
+    assertThat(memo.getLastCompletedBuild(project), is(nullValue()));
+
+    verify(project, times(1)).getLastCompletedBuild();
+  }
+}
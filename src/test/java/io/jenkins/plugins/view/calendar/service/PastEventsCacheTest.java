@@ -0,0 +1,182 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import static io.jenkins.plugins.view.calendar.test.CalendarUtil.mom;
+import static io.jenkins.plugins.view.calendar.test.TestUtil.mockFreeStyleProject;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Job;
+import hudson.model.Run;
+import io.jenkins.plugins.view.calendar.CalendarView.CalendarViewEventsType;
+import io.jenkins.plugins.view.calendar.event.CalendarEvent;
+import io.jenkins.plugins.view.calendar.event.StartedCalendarEvent;
+import io.jenkins.plugins.view.calendar.time.MomentRange;
+
+class PastEventsCacheTest {
+
+  private PastEventsCache cache;
+  private AtomicInteger collected;
+  private String view;
+  private FreeStyleProject project;
+  private List<Job> jobs;
+  private MomentRange week;
+
+  @BeforeEach
+  void setUp() throws ParseException {
+    cache = new PastEventsCache(5);
+    collected = new AtomicInteger();
+    view = "view/cal/";
+    project = mockFreeStyleProject();
+    when(project.getFullName()).thenReturn("folder/job");
+    jobs = List.of(project);
+    week = MomentRange.range(mom("2018-01-01 00:00:00 UTC"), mom("2018-01-08 00:00:00 UTC"));
+  }
+
+  private Supplier<List<CalendarEvent>> collector(int count) {
+    return () -> {
+      collected.incrementAndGet();
+      List<CalendarEvent> events = new ArrayList<>();
+      for (int i = 1; i <= count; i++) {
+        FreeStyleBuild build = mock(FreeStyleBuild.class);
+        when(build.getParent()).thenReturn(project);
+        when(build.getNumber()).thenReturn(i);
+        when(project.getBuildByNumber(i)).thenReturn(build);
+        events.add(event(project, build));
+      }
+      return events;
+    };
+  }
+
+  private static StartedCalendarEvent event(Job job, Run build) {
+    StartedCalendarEvent event = mock(StartedCalendarEvent.class);
+    when(event.getBuild()).thenReturn(build);
+    return event;
+  }
+
+  private List<CalendarEvent> getEvents(String view, List<Job> jobs, CalendarViewEventsType eventsType, MomentRange range,
+      Supplier<List<CalendarEvent>> collector) {
+    return cache.getEvents(view, jobs, eventsType, range, collector, PastEventsCacheTest::event);
+  }
+
+  @Test
+  void testCollectsOnlyOnce() throws ParseException {
+    List<CalendarEvent> events = getEvents(view, jobs, CalendarViewEventsType.ALL, week, collector(2));
+
+    List<CalendarEvent> cached = getEvents(view, jobs, CalendarViewEventsType.ALL, week, collector(2));
+    assertThat(collected.get(), is(1));
+    assertThat(buildsOf(cached), is(buildsOf(events)));
+
+    getEvents(view, jobs, CalendarViewEventsType.BUILDS, week, collector(2));
+    getEvents("view/other/", jobs, CalendarViewEventsType.ALL, week, collector(2));
+    getEvents(view, List.of(), CalendarViewEventsType.ALL, week, collector(0));
+    getEvents(view, jobs, CalendarViewEventsType.ALL, MomentRange.range(mom("2018-01-08 00:00:00 UTC"), mom("2018-01-15 00:00:00 UTC")), collector(0));
+    assertThat(collected.get(), is(5));
+  }
+
+  @Test
+  void testEvictsLeastRecentlyUsed() throws ParseException {
+    MomentRange nextWeek = MomentRange.range(mom("2018-01-08 00:00:00 UTC"), mom("2018-01-15 00:00:00 UTC"));
+    MomentRange lastWeek = MomentRange.range(mom("2017-12-25 00:00:00 UTC"), mom("2018-01-01 00:00:00 UTC"));
+    getEvents(view, jobs, CalendarViewEventsType.ALL, week, collector(2));
+    getEvents(view, jobs, CalendarViewEventsType.ALL, nextWeek, collector(2));
+    getEvents(view, jobs, CalendarViewEventsType.ALL, week, collector(2));
+
+    getEvents(view, jobs, CalendarViewEventsType.ALL, lastWeek, collector(2));
+    assertThat(cache.size(), is(4));
+
+    getEvents(view, jobs, CalendarViewEventsType.ALL, week, collector(2));
+    assertThat(collected.get(), is(3));
+    getEvents(view, jobs, CalendarViewEventsType.ALL, nextWeek, collector(2));
+    assertThat(collected.get(), is(4));
+  }
+
+  @Test
+  void testDoesNotCacheTooManyEvents() {
+    assertThat(getEvents(view, jobs, CalendarViewEventsType.ALL, week, collector(6)), hasSize(6));
+    getEvents(view, jobs, CalendarViewEventsType.ALL, week, collector(6));
+
+    assertThat(collected.get(), is(2));
+    assertThat(cache.size(), is(0));
+  }
+
+  @Test
+  void testInvalidate() {
+    getEvents(view, jobs, CalendarViewEventsType.ALL, week, collector(1));
+    cache.invalidateJob("folder");
+    getEvents(view, jobs, CalendarViewEventsType.ALL, week, collector(1));
+    assertThat(collected.get(), is(2));
+
+    cache.invalidateJob("folder2");
+    cache.invalidateView("view/other/");
+    getEvents(view, jobs, CalendarViewEventsType.ALL, week, collector(1));
+    assertThat(collected.get(), is(2));
+
+    cache.invalidateView(view);
+    getEvents(view, jobs, CalendarViewEventsType.ALL, week, collector(1));
+    assertThat(collected.get(), is(3));
+  }
+
+  @Test
+  void testSkipsDeletedBuilds() {
+    getEvents(view, jobs, CalendarViewEventsType.ALL, week, collector(2));
+    when(project.getBuildByNumber(1)).thenReturn(null);
+
+    List<CalendarEvent> cached = getEvents(view, jobs, CalendarViewEventsType.ALL, week, collector(2));
+    assertThat(collected.get(), is(1));
+    assertThat(buildsOf(cached), is(List.of(2)));
+  }
+
+  @Test
+  void testDoesNotCacheEventsOfOtherJobs() {
+    getEvents(view, List.of(), CalendarViewEventsType.ALL, week, collector(1));
+    getEvents(view, List.of(), CalendarViewEventsType.ALL, week, collector(1));
+
+    assertThat(collected.get(), is(2));
+    assertThat(cache.size(), is(0));
+  }
+
+  private static List<Integer> buildsOf(List<CalendarEvent> events) {
+    List<Integer> numbers = new ArrayList<>();
+    for (CalendarEvent event : events) {
+      numbers.add(((StartedCalendarEvent) event).getBuild().getNumber());
+    }
+    return numbers;
+  }
+}
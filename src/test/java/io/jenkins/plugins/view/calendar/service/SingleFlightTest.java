@@ -0,0 +1,117 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  private ExecutorService executor;
+  private SingleFlight<String, List<String>> singleFlight;
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newFixedThreadPool(4);
+    singleFlight = new SingleFlight<>();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void testConcurrentCallersShareResult() throws Exception {
+    CountDownLatch computing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger computations = new AtomicInteger();
+
+    Future<List<String>> first = executor.submit(() -> singleFlight.execute("week", () -> {
+      computations.incrementAndGet();
+      computing.countDown();
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return List.of("event");
+    }));
+    assertThat(computing.await(10, TimeUnit.SECONDS), is(true));
+
+    List<Future<List<String>>> others = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      others.add(executor.submit(() -> singleFlight.execute("week", () -> {
+        computations.incrementAndGet();
+        return List.of("other");
+      })));
+    }
+    // waits until the other callers joined the computation in flight
+    Thread.sleep(200);
+    release.countDown();
+
+    List<String> events = first.get(10, TimeUnit.SECONDS);
+    for (Future<List<String>> other : others) {
+      assertThat(other.get(10, TimeUnit.SECONDS), is(sameInstance(events)));
+    }
+    assertThat(computations.get(), is(1));
+    assertThat(singleFlight.getInFlightCount(), is(0));
+  }
+
+  @Test
+  void testComputesAgainOnceFinished() {
+    AtomicInteger computations = new AtomicInteger();
+
+    singleFlight.execute("week", () -> List.of(String.valueOf(computations.incrementAndGet())));
+    singleFlight.execute("week", () -> List.of(String.valueOf(computations.incrementAndGet())));
+    singleFlight.execute("day", () -> List.of(String.valueOf(computations.incrementAndGet())));
+
+    assertThat(computations.get(), is(3));
+  }
+
+  @Test
+  void testExceptionIsNotKept() {
+    assertThrows(IllegalStateException.class, () -> singleFlight.execute("week", () -> {
+      throw new IllegalStateException();
+    }));
+
+    assertThat(singleFlight.execute("week", () -> List.of("event")), is(List.of("event")));
+    assertThat(singleFlight.getInFlightCount(), is(0));
+  }
+}
@@ -97,4 +97,18 @@ class MomentTest {
     assertThat(mom("2018-01-01 00:03:30 UTC").previousMinute(), is(mom("2018-01-01 00:02:00 UTC")));
     assertThat(mom("2018-01-01 00:03:00 UTC").previousMinute(), is(mom("2018-01-01 00:02:00 UTC")));
   }
+
+  @Test
+  void testMinutesBeforeEpoch() {
+    assertThat(new Moment(-30_000).nextMinute(), is(new Moment(0)));
+    assertThat(new Moment(-30_000).previousMinute(), is(new Moment(-120_000)));
+  }
+
+  @Test
+  void testCompareWithCalendar() throws ParseException {
+    Moment m = mom("2018-01-01 00:00:00 UTC");
+    assertThat(m.isSame(cal("2018-01-01 01:00:00 CET")), is(true));
+    assertThat(m.isBefore(cal("2018-01-01 00:00:01 UTC")), is(true));
+    assertThat(m.isAfter(cal("2017-12-31 23:59:59 UTC")), is(true));
+  }
 }
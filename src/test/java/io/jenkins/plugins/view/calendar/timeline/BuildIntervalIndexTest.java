@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.timeline;
+
+import static io.jenkins.plugins.view.calendar.test.CalendarUtil.cal;
+import static io.jenkins.plugins.view.calendar.test.CalendarUtil.hours;
+import static io.jenkins.plugins.view.calendar.test.CalendarUtil.minutes;
+import static io.jenkins.plugins.view.calendar.test.TestUtil.mockBuilds;
+import static io.jenkins.plugins.view.calendar.test.TestUtil.mockFinishedFreeStyleBuild;
+import static io.jenkins.plugins.view.calendar.test.TestUtil.mockFreeStyleProject;
+import static io.jenkins.plugins.view.calendar.test.TestUtil.mockRunningFreeStyleBuild;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.text.ParseException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Result;
+
+class BuildIntervalIndexTest {
+
+  @TempDir
+  File rootDir;
+
+  private FreeStyleProject project;
+  private BuildTimelineStore store;
+  private BuildIntervalIndex index;
+
+  @BeforeEach
+  void setUp() {
+    project = mockFreeStyleProject();
+    when(project.getFullName()).thenReturn("folder/project");
+    when(project.getRootDir()).thenReturn(rootDir);
+    store = new BuildTimelineStore(false);
+    index = new BuildIntervalIndex(store);
+  }
+
+  private FreeStyleBuild finishedBuild(int number, String start, long duration) throws ParseException {
+    FreeStyleBuild build = mockFinishedFreeStyleBuild("#" + number, start, duration, Result.SUCCESS);
+    when(build.getNumber()).thenReturn(number);
+    when(build.getParent()).thenReturn(project);
+    return build;
+  }
+
+  private FreeStyleBuild runningBuild(int number, String start) throws ParseException {
+    FreeStyleBuild build = mockRunningFreeStyleBuild("#" + number, start, minutes(10));
+    when(build.getNumber()).thenReturn(number);
+    when(build.getParent()).thenReturn(project);
+    return build;
+  }
+
+  private static long millis(String date) throws ParseException {
+    return cal(date).getTimeInMillis();
+  }
+
+  @Test
+  void testGetBuildNumbers() throws ParseException {
+    FreeStyleBuild build1 = finishedBuild(1, "2018-01-01 00:00:00 UTC", hours(5));
+    FreeStyleBuild build2 = finishedBuild(2, "2018-01-01 01:00:00 UTC", minutes(10));
+    FreeStyleBuild build3 = finishedBuild(3, "2018-01-01 02:00:00 UTC", minutes(10));
+    FreeStyleBuild build4 = finishedBuild(4, "2018-01-01 03:00:00 UTC", minutes(10));
+    FreeStyleBuild build5 = finishedBuild(5, "2018-01-01 04:00:00 UTC", minutes(10));
+    FreeStyleBuild build6 = finishedBuild(6, "2018-01-01 05:00:00 UTC", minutes(10));
+    FreeStyleBuild build7 = finishedBuild(7, "2018-01-01 06:00:00 UTC", minutes(10));
+    when(project.getBuilds()).thenReturn(mockBuilds(build7, build6, build5, build4, build3, build2, build1));
+    store.rebuild(project);
+
+    assertThat(index.getBuildNumbers(project, millis("2018-01-01 04:30:00 UTC"), millis("2018-01-01 05:30:00 UTC")), contains(6, 1));
+    assertThat(index.getBuildNumbers(project, millis("2018-01-01 05:30:00 UTC"), millis("2018-01-01 06:00:00 UTC")), is(empty()));
+    assertThat(index.getBuildNumbers(project, millis("2018-01-01 06:05:00 UTC"), millis("2018-01-02 00:00:00 UTC")), contains(7));
+    assertThat(index.getBuildNumbers(project, millis("2017-12-31 00:00:00 UTC"), millis("2018-01-01 00:00:00 UTC")), is(empty()));
+  }
+
+  @Test
+  void testGetBuildNumbersWithoutTimeline() throws ParseException {
+    assertThat(index.getBuildNumbers(project, millis("2018-01-01 00:00:00 UTC"), millis("2018-01-02 00:00:00 UTC")), is(nullValue()));
+  }
+
+  @Test
+  void testUpdate() throws ParseException {
+    FreeStyleBuild build1 = finishedBuild(1, "2018-01-01 00:00:00 UTC", minutes(5));
+    when(project.getBuilds()).thenReturn(mockBuilds(build1));
+    store.rebuild(project);
+    long from = millis("2018-01-01 00:00:00 UTC");
+    long to = millis("2018-01-02 00:00:00 UTC");
+    assertThat(index.getBuildNumbers(project, from, to), contains(1));
+
+    index.update(runningBuild(2, "2018-01-01 01:00:00 UTC"));
+
+    assertThat(index.getBuildNumbers(project, from, to), contains(2, 1));
+    assertThat(index.getBuildNumbers(project, millis("2018-01-01 20:00:00 UTC"), to), contains(2));
+
+    index.update(finishedBuild(2, "2018-01-01 01:00:00 UTC", minutes(30)));
+
+    assertThat(index.getBuildNumbers(project, millis("2018-01-01 20:00:00 UTC"), to), is(empty()));
+  }
+
+  @Test
+  void testRemove() throws ParseException {
+    FreeStyleBuild build1 = finishedBuild(1, "2018-01-01 00:00:00 UTC", minutes(5));
+    FreeStyleBuild build2 = finishedBuild(2, "2018-01-01 01:00:00 UTC", minutes(5));
+    when(project.getBuilds()).thenReturn(mockBuilds(build2, build1));
+    store.rebuild(project);
+    long from = millis("2018-01-01 00:00:00 UTC");
+    long to = millis("2018-01-02 00:00:00 UTC");
+    assertThat(index.getBuildNumbers(project, from, to), contains(2, 1));
+
+    index.remove(build1);
+
+    assertThat(index.getBuildNumbers(project, from, to), contains(2));
+  }
+
+  @Test
+  void testRemoveFolder() throws ParseException {
+    FreeStyleBuild build1 = finishedBuild(1, "2018-01-01 00:00:00 UTC", minutes(5));
+    when(project.getBuilds()).thenReturn(mockBuilds(build1));
+    store.rebuild(project);
+    long from = millis("2018-01-01 00:00:00 UTC");
+    long to = millis("2018-01-02 00:00:00 UTC");
+    assertThat(index.getBuildNumbers(project, from, to), contains(1));
+
+    // stale entries are dropped, the job is loaded again from its timeline
+    index.update(finishedBuild(2, "2018-01-01 01:00:00 UTC", minutes(5)));
+    assertThat(index.getBuildNumbers(project, from, to), contains(2, 1));
+
+    index.remove("folder");
+
+    assertThat(index.getBuildNumbers(project, from, to), contains(1));
+  }
+}
@@ -0,0 +1,286 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2018 Sven Schoenung
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.jenkins.plugins.view.calendar.timeline;
+
+import static io.jenkins.plugins.view.calendar.test.CalendarUtil.cal;
+import static io.jenkins.plugins.view.calendar.test.CalendarUtil.hours;
+import static io.jenkins.plugins.view.calendar.test.CalendarUtil.minutes;
+import static io.jenkins.plugins.view.calendar.test.TestUtil.mockBuilds;
+import static io.jenkins.plugins.view.calendar.test.TestUtil.mockFinishedFreeStyleBuild;
+import static io.jenkins.plugins.view.calendar.test.TestUtil.mockFreeStyleProject;
+import static io.jenkins.plugins.view.calendar.test.TestUtil.mockRunningFreeStyleBuild;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.text.ParseException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import hudson.Util;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Result;
+
+class BuildTimelineStoreTest {
+
+  @TempDir
+  File rootDir;
+
+  private FreeStyleProject project;
+
+  @BeforeEach
+  void setUp() {
+    project = mockFreeStyleProject();
+    when(project.getRootDir()).thenReturn(rootDir);
+  }
+
+  private FreeStyleBuild finishedBuild(int number, String start, long duration, Result result) throws ParseException {
+    FreeStyleBuild build = mockFinishedFreeStyleBuild("#" + number, start, duration, result);
+    when(build.getNumber()).thenReturn(number);
+    when(build.getParent()).thenReturn(project);
+    return build;
+  }
+
+  private FreeStyleBuild runningBuild(int number, String start) throws ParseException {
+    FreeStyleBuild build = mockRunningFreeStyleBuild("#" + number, start, minutes(10));
+    when(build.getNumber()).thenReturn(number);
+    when(build.getParent()).thenReturn(project);
+    return build;
+  }
+
+  @Test
+  void testRebuild() throws ParseException {
+    FreeStyleBuild build1 = finishedBuild(1, "2018-01-01 00:00:00 UTC", minutes(5), Result.SUCCESS);
+    FreeStyleBuild build2 = finishedBuild(2, "2018-01-01 01:00:00 UTC", minutes(20), Result.FAILURE);
+    FreeStyleBuild build3 = runningBuild(3, "2018-01-01 02:00:00 UTC");
+    when(project.getBuilds()).thenReturn(mockBuilds(build3, build2, build1));
+
+    BuildTimelineStore.get().rebuild(project);
+
+    BuildTimeline timeline = BuildTimelineStore.get().getTimeline(project);
+    assertThat(timeline.size(), is(3));
+    assertThat(timeline.getMaxDuration(), is(minutes(20)));
+    assertThat(timeline.getLastNumber(), is(3));
+
+    assertThat(timeline.getNumber(0), is(1));
+    assertThat(timeline.getStartTimeInMillis(0), is(cal("2018-01-01 00:00:00 UTC").getTimeInMillis()));
+    assertThat(timeline.getDuration(0), is(minutes(5)));
+    assertThat(timeline.getResult(0), is(Result.SUCCESS));
+    assertThat(timeline.isBuilding(0), is(false));
+
+    assertThat(timeline.getNumber(1), is(2));
+    assertThat(timeline.getResult(1), is(Result.FAILURE));
+
+    assertThat(timeline.getNumber(2), is(3));
+    assertThat(timeline.getResult(2), is(nullValue()));
+    assertThat(timeline.isBuilding(2), is(true));
+  }
+
+  @Test
+  void testUpdate() throws ParseException {
+    FreeStyleBuild build1 = finishedBuild(1, "2018-01-01 00:00:00 UTC", minutes(5), Result.SUCCESS);
+    when(project.getBuilds()).thenReturn(mockBuilds(build1));
+    BuildTimelineStore.get().rebuild(project);
+
+    BuildTimelineStore.get().update(runningBuild(2, "2018-01-01 01:00:00 UTC"));
+
+    BuildTimeline timeline = BuildTimelineStore.get().getTimeline(project);
+    assertThat(timeline.size(), is(2));
+    assertThat(timeline.isBuilding(1), is(true));
+    assertThat(timeline.getMaxDuration(), is(minutes(5)));
+
+    BuildTimelineStore.get().update(finishedBuild(2, "2018-01-01 01:00:00 UTC", minutes(30), Result.UNSTABLE));
+
+    timeline = BuildTimelineStore.get().getTimeline(project);
+    assertThat(timeline.size(), is(2));
+    assertThat(timeline.isBuilding(1), is(false));
+    assertThat(timeline.getResult(1), is(Result.UNSTABLE));
+    assertThat(timeline.getDuration(1), is(minutes(30)));
+    assertThat(timeline.getMaxDuration(), is(minutes(30)));
+  }
+
+  @Test
+  void testAppendsBuildsMissingFromTimeline() throws ParseException {
+    BuildTimelineStore store = new BuildTimelineStore(false);
+    FreeStyleBuild build1 = finishedBuild(1, "2018-01-01 00:00:00 UTC", minutes(5), Result.SUCCESS);
+    when(project.getBuilds()).thenReturn(mockBuilds(build1));
+    store.rebuild(project);
+
+    // builds started while the timeline was not kept up to date
+    FreeStyleBuild build2 = finishedBuild(2, "2018-01-01 01:00:00 UTC", minutes(30), Result.SUCCESS);
+    FreeStyleBuild build3 = runningBuild(3, "2018-01-01 02:00:00 UTC");
+    when(build2.getPreviousBuild()).thenReturn(build1);
+    when(build3.getPreviousBuild()).thenReturn(build2);
+    when(project.getLastBuild()).thenReturn(build3);
+
+    assertThat(store.getTimeline(project), is(nullValue()));
+
+    store.rebuild(project);
+
+    BuildTimeline timeline = store.getTimeline(project);
+    assertThat(timeline.size(), is(3));
+    assertThat(timeline.getNumber(1), is(2));
+    assertThat(timeline.getNumber(2), is(3));
+    assertThat(timeline.isBuilding(2), is(true));
+    assertThat(timeline.getMaxDuration(), is(minutes(30)));
+    assertThat(timeline.getLastNumber(), is(3));
+  }
+
+  @Test
+  void testUpdateWithoutTimeline() throws ParseException {
+    BuildTimelineStore.get().update(finishedBuild(1, "2018-01-01 00:00:00 UTC", minutes(5), Result.SUCCESS));
+
+    assertThat(new File(rootDir, BuildTimelineStore.FILE_NAME).exists(), is(false));
+  }
+
+  @Test
+  void testRemove() throws ParseException {
+    FreeStyleBuild build1 = finishedBuild(1, "2018-01-01 00:00:00 UTC", minutes(5), Result.SUCCESS);
+    FreeStyleBuild build2 = finishedBuild(2, "2018-01-01 01:00:00 UTC", minutes(5), Result.SUCCESS);
+    FreeStyleBuild build3 = finishedBuild(3, "2018-01-01 02:00:00 UTC", minutes(5), Result.SUCCESS);
+    when(project.getBuilds()).thenReturn(mockBuilds(build3, build2, build1));
+    BuildTimelineStore.get().rebuild(project);
+
+    BuildTimelineStore.get().remove(build2);
+
+    BuildTimeline timeline = BuildTimelineStore.get().getTimeline(project);
+    assertThat(timeline.size(), is(2));
+    assertThat(timeline.getNumber(0), is(1));
+    assertThat(timeline.getNumber(1), is(3));
+  }
+
+  @Test
+  void testMemoryMapped() throws ParseException {
+    BuildTimelineStore store = new BuildTimelineStore(true);
+    long from = cal("2018-01-01 00:00:00 UTC").getTimeInMillis();
+    long to = cal("2018-01-02 00:00:00 UTC").getTimeInMillis();
+    FreeStyleBuild build1 = finishedBuild(1, "2018-01-01 00:00:00 UTC", minutes(5), Result.SUCCESS);
+    when(project.getBuilds()).thenReturn(mockBuilds(build1));
+    store.rebuild(project);
+
+    assertThat(store.getBuildNumbers(project, from, to), contains(1));
+    assertThat(store.getMappedTimelineCount(), is(1));
+
+    store.update(runningBuild(2, "2018-01-01 01:00:00 UTC"));
+
+    assertThat(store.getBuildNumbers(project, from, to), contains(2, 1));
+
+    store.update(finishedBuild(2, "2018-01-01 01:00:00 UTC", minutes(30), Result.UNSTABLE));
+
+    assertThat(store.getBuildNumbers(project, from, to), contains(2, 1));
+    assertThat(store.getTimeline(project).getMaxDuration(), is(minutes(30)));
+
+    // replaces the mapped file
+    store.remove(build1);
+
+    assertThat(store.getBuildNumbers(project, from, to), contains(2));
+    assertThat(store.getMappedTimelineCount(), is(1));
+  }
+
+  @Test
+  void testPruneDropsMappedTimelinesOfMissingJobs() throws Exception {
+    BuildTimelineStore store = new BuildTimelineStore(true);
+    File jobDir = new File(rootDir, "job");
+    assertThat(jobDir.mkdir(), is(true));
+    when(project.getRootDir()).thenReturn(jobDir);
+    when(project.getBuilds()).thenReturn(mockBuilds(finishedBuild(1, "2018-01-01 00:00:00 UTC", minutes(5), Result.SUCCESS)));
+    store.rebuild(project);
+    store.getBuildNumbers(project, 0, Long.MAX_VALUE);
+    assertThat(store.getMappedTimelineCount(), is(1));
+
+    Util.deleteRecursive(jobDir);
+    store.prune();
+
+    assertThat(store.getMappedTimelineCount(), is(0));
+    assertThat(store.getLockCount(), is(0));
+  }
+
+  @Test
+  void testGetBuildNumbers() throws ParseException {
+    FreeStyleBuild build1 = finishedBuild(1, "2018-01-01 00:00:00 UTC", hours(5), Result.SUCCESS);
+    FreeStyleBuild build2 = finishedBuild(2, "2018-01-01 01:00:00 UTC", minutes(10), Result.SUCCESS);
+    FreeStyleBuild build3 = finishedBuild(3, "2018-01-01 02:00:00 UTC", minutes(10), Result.SUCCESS);
+    FreeStyleBuild build4 = finishedBuild(4, "2018-01-01 03:00:00 UTC", minutes(10), Result.SUCCESS);
+    FreeStyleBuild build5 = finishedBuild(5, "2018-01-01 04:00:00 UTC", minutes(10), Result.SUCCESS);
+    FreeStyleBuild build6 = finishedBuild(6, "2018-01-01 05:00:00 UTC", minutes(10), Result.SUCCESS);
+    FreeStyleBuild build7 = finishedBuild(7, "2018-01-01 06:00:00 UTC", minutes(10), Result.SUCCESS);
+    when(project.getBuilds()).thenReturn(mockBuilds(build7, build6, build5, build4, build3, build2, build1));
+    BuildTimelineStore.get().rebuild(project);
+
+    BuildTimeline timeline = BuildTimelineStore.get().getTimeline(project);
+    long from = cal("2018-01-01 04:30:00 UTC").getTimeInMillis();
+    long to = cal("2018-01-01 05:30:00 UTC").getTimeInMillis();
+
+    assertThat(timeline.getBuildNumbers(from, to), contains(6, 1));
+  }
+
+  @Test
+  void testGetBuildNumbersOfMappedTimeline() throws ParseException {
+    BuildTimelineStore store = new BuildTimelineStore(true);
+    FreeStyleBuild build1 = finishedBuild(1, "2018-01-01 00:00:00 UTC", hours(5), Result.SUCCESS);
+    FreeStyleBuild build2 = finishedBuild(2, "2018-01-01 01:00:00 UTC", minutes(10), Result.SUCCESS);
+    FreeStyleBuild build3 = finishedBuild(3, "2018-01-01 06:00:00 UTC", minutes(10), Result.SUCCESS);
+    FreeStyleBuild build4 = finishedBuild(4, "2018-01-01 07:00:00 UTC", minutes(10), Result.SUCCESS);
+    when(project.getBuilds()).thenReturn(mockBuilds(build4, build3, build2, build1));
+    store.rebuild(project);
+
+    assertThat(store.getBuildNumbers(project, cal("2018-01-01 04:30:00 UTC").getTimeInMillis(), cal("2018-01-01 06:30:00 UTC").getTimeInMillis()),
+        contains(3, 1));
+    assertThat(store.getBuildNumbers(project, cal("2018-01-01 12:00:00 UTC").getTimeInMillis(), cal("2018-01-01 13:00:00 UTC").getTimeInMillis()),
+        is(empty()));
+    assertThat(store.getBuildNumbers(project, cal("2017-12-31 00:00:00 UTC").getTimeInMillis(), cal("2017-12-31 01:00:00 UTC").getTimeInMillis()),
+        is(empty()));
+  }
+
+  @Test
+  void testGetBuildNumbersRequiresMappedTimelines() {
+    assertThrows(IllegalStateException.class, () -> new BuildTimelineStore(false).getBuildNumbers(project, 0, Long.MAX_VALUE));
+  }
+
+  @Test
+  void testPrune() throws Exception {
+    BuildTimelineStore store = new BuildTimelineStore(false);
+    File jobDir = new File(rootDir, "job");
+    assertThat(jobDir.mkdir(), is(true));
+    when(project.getRootDir()).thenReturn(jobDir);
+    when(project.getBuilds()).thenReturn(mockBuilds(finishedBuild(1, "2018-01-01 00:00:00 UTC", minutes(5), Result.SUCCESS)));
+    store.rebuild(project);
+    assertThat(store.getLockCount(), is(1));
+
+    store.prune();
+    assertThat(store.getLockCount(), is(1));
+
+    Util.deleteRecursive(jobDir);
+    store.prune();
+    assertThat(store.getLockCount(), is(0));
+  }
+}
@@ -0,0 +1,63 @@
+'use strict';
+
+/* global describe:false, it:false */
+
+require('@babel/register')();
+
+var chai = require('chai');
+var expect = chai.expect;
+
+var icons = require('../../main/js/icons.js');
+
+describe('icons.resolve()', function() {
+  it('should return events of response', function() {
+    expect(icons.resolve({ events: [], icons: {} })).to.eql([]);
+  });
+
+  it('should replace icon keys with markup', function() {
+    var response = {
+      events: [{
+        icon: 'symbol-status-red icon-md',
+        job: { icon: 'symbol-weather-icon-health-00to19 icon-sm' },
+        previousStartedBuild: { icon: 'symbol-status-blue icon-sm' },
+        builds: [{ icon: 'symbol-status-blue icon-sm' }, { icon: 'symbol-status-red icon-sm' }]
+      }],
+      icons: {
+        'symbol-status-red icon-md': '<svg class="icon-md">red</svg>',
+        'symbol-status-red icon-sm': '<svg class="icon-sm">red</svg>',
+        'symbol-status-blue icon-sm': '<svg class="icon-sm">blue</svg>',
+        'symbol-weather-icon-health-00to19 icon-sm': '<svg class="icon-sm">weather</svg>'
+      }
+    };
+    var event = icons.resolve(response)[0];
+
+    expect(event.icon).to.equal('<svg class="icon-md">red</svg>');
+    expect(event.job.icon).to.equal('<svg class="icon-sm">weather</svg>');
+    expect(event.previousStartedBuild.icon).to.equal('<svg class="icon-sm">blue</svg>');
+    expect(event.builds[0].icon).to.equal('<svg class="icon-sm">blue</svg>');
+    expect(event.builds[1].icon).to.equal('<svg class="icon-sm">red</svg>');
+  });
+
+  it('should keep unknown icon keys', function() {
+    var event = icons.resolve({ events: [{ icon: 'unknown' }], icons: {} })[0];
+
+    expect(event.icon).to.equal('unknown');
+  });
+});
+
+describe('icons.resolveDetail()', function() {
+  it('should replace icon keys with markup and drop dictionary', function() {
+    var detail = icons.resolveDetail({
+      job: { icon: 'symbol-weather-icon-health-00to19 icon-sm' },
+      nextStartedBuild: { icon: 'symbol-status-blue icon-sm' },
+      icons: {
+        'symbol-status-blue icon-sm': '<svg class="icon-sm">blue</svg>',
+        'symbol-weather-icon-health-00to19 icon-sm': '<svg class="icon-sm">weather</svg>'
+      }
+    });
+
+    expect(detail.job.icon).to.equal('<svg class="icon-sm">weather</svg>');
+    expect(detail.nextStartedBuild.icon).to.equal('<svg class="icon-sm">blue</svg>');
+    expect(detail).to.not.have.property('icons');
+  });
+});
@@ -10,7 +10,12 @@ module.exports = function() {
       build: 'bbb',
       nextScheduledBuild: 'nxb',
       buildHistory: 'bHist',
-      buildHistoryEmpty: 'bEmpty'
+      buildHistoryEmpty: 'bEmpty',
+      expandSummary: 'eSum'
+    },
+    partialText: {
+      message: 'pMsg',
+      loadRemaining: 'pLoad'
     }
   };
   global.CalendarViewOptions = CalendarViewOptions;
@@ -0,0 +1,43 @@
+'use strict';
+
+/* global describe:false, it:false, beforeEach:false */
+
+var requireUncached = require('import-fresh');
+var mock = require('./mock');
+
+var chai = require('chai');
+var expect = chai.expect;
+
+var $;
+var partial;
+
+function mockCalendar() {
+  var calendar = $('#calendar-view');
+  calendar.fullCalendar = function() {};
+  return calendar;
+}
+
+describe('partial.show()', function() {
+  beforeEach(function() {
+    mock.jquery('<html><body><div id="calendar-view"></div></body></html>');
+    mock.calendarViewOptions();
+    $ = require('jquery');
+    partial = requireUncached('../../main/js/partial.js');
+  });
+
+  it('should show hint if events are truncated', function() {
+    partial.show(mockCalendar(), { truncated: true, skippedJobs: ['slow'], events: [] });
+
+    expect($('.calendar-view-partial')).to.have.length(1);
+    expect($('.calendar-view-partial').text()).to.equal('pMsg pLoad');
+  });
+
+  it('should hide hint once events are complete', function() {
+    var calendar = mockCalendar();
+    partial.show(calendar, { truncated: true, skippedJobs: ['slow'], events: [] });
+
+    partial.show(calendar, { events: [] });
+
+    expect($('.calendar-view-partial')).to.have.length(0);
+  });
+});
@@ -168,4 +168,39 @@ describe('popup.dom()', function() {
     expect(html).to.have.string('href="' + build16.url + '"');
     expect(html).to.have.string('href="' + build17.url + '"');
   });
+
+  it('should create dom for scheduled summary event', function() {
+    var event = mock.scheduledBuild();
+    event.summaryString = '3 scheduled builds, every 10 minutes';
+    event.summary = { count: 3, interval: 10, occurrences: [0, 10, 20] };
+    var html = popup.dom(event, view, { close: function() {} })[0].outerHTML;
+
+    expect(html).to.have.string('>' + event.title + '<');
+    expect(html).to.have.string(event.summaryString);
+    expect(html).to.have.string(CalendarViewOptions.popupText.expandSummary);
+  });
+});
+
+describe('popup.expand()', function() {
+  beforeEach(function() {
+    mock.jquery('<html></html>');
+    mock.calendarViewOptions();
+    popup = requireUncached('../../main/js/popup.js');
+  });
+
+  it('should expand summary event into single events', function() {
+    var event = mock.scheduledBuild();
+    event.className = 'event-state-future event-summary event-id-view-calendar-job-backup';
+    event.summary = { count: 3, interval: 10, occurrences: [0, 10, 25] };
+    var expanded = popup.expand(event);
+
+    expect(expanded).to.have.length(3);
+    expect(expanded[0].start).to.equal('2018-07-28T20:00:16');
+    expect(expanded[1].start).to.equal('2018-07-28T20:10:16');
+    expect(expanded[2].start).to.equal('2018-07-28T20:25:16');
+    expect(expanded[2].end).to.equal('2018-07-28T20:54:22');
+    expect(expanded[1].id).to.equal(event.id + '-10');
+    expect(expanded[1].className).to.equal('event-state-future event-id-' + event.id + '-10');
+    expect(expanded[1].summary).to.equal(undefined);
+  });
 });
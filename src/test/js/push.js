@@ -0,0 +1,109 @@
+'use strict';
+
+/* global describe:false, it:false, beforeEach:false */
+
+var requireUncached = require('import-fresh');
+var mock = require('./mock');
+
+var chai = require('chai');
+var expect = chai.expect;
+
+var push;
+
+function mockCalendar(ids) {
+  var calendar = { events: ids.map(function(id) { return { id: id, state: 'running' }; }), calls: [] };
+  calendar.fullCalendar = function(method, arg) {
+    calendar.calls.push(method);
+    if (method === 'clientEvents') {
+      return calendar.events.filter(function(e) { return e.id === arg; });
+    }
+    if (method === 'removeEvents') {
+      calendar.events = calendar.events.filter(function(e) { return !arg(e); });
+    }
+    if (method === 'renderEvent') {
+      calendar.events.push(arg);
+    }
+  };
+  return calendar;
+}
+
+describe('push.apply()', function() {
+  beforeEach(function() {
+    mock.jquery('<html></html>');
+    mock.calendarViewOptions();
+    push = requireUncached('../../main/js/push.js');
+  });
+
+  it('should update existing events', function() {
+    var calendar = mockCalendar(['a']);
+
+    push.apply(calendar, 'finish', { events: [{ id: 'a', state: 'finished', icon: 'blue' }], icons: { blue: '<svg></svg>' } });
+
+    expect(calendar.events).to.have.length(1);
+    expect(calendar.events[0].state).to.equal('finished');
+    expect(calendar.events[0].icon).to.equal('<svg></svg>');
+    expect(calendar.calls).to.include('updateEvent');
+  });
+
+  it('should render new events', function() {
+    var calendar = mockCalendar(['a']);
+
+    push.apply(calendar, 'start', { events: [{ id: 'b', state: 'running' }], icons: {} });
+
+    expect(calendar.events.map(function(e) { return e.id; })).to.eql(['a', 'b']);
+    expect(calendar.calls).not.to.include('refetchEvents');
+  });
+
+  it('should remove deleted events', function() {
+    var calendar = mockCalendar(['a', 'b']);
+
+    push.apply(calendar, 'delete', { removed: ['a'] });
+
+    expect(calendar.events.map(function(e) { return e.id; })).to.eql(['b']);
+  });
+
+  it('should refetch events on resync', function() {
+    var calendar = mockCalendar([]);
+
+    push.apply(calendar, 'resync', {});
+
+    expect(calendar.calls).to.eql(['refetchEvents']);
+  });
+});
+
+describe('push.connect()', function() {
+  var source;
+
+  beforeEach(function() {
+    mock.jquery('<html></html>');
+    mock.calendarViewOptions();
+    window.EventSource = function() {
+      source = this;
+      this.addEventListener = function() {};
+    };
+    window.EventSource.CLOSED = 2;
+    push = requireUncached('../../main/js/push.js');
+  });
+
+  it('should refetch events after reconnecting', function() {
+    var calendar = mockCalendar([]);
+    push.connect(calendar, function() {});
+
+    source.onopen();
+    expect(calendar.calls).to.eql([]);
+
+    source.readyState = 0;
+    source.onerror();
+    source.onopen();
+    expect(calendar.calls).to.eql(['refetchEvents']);
+  });
+
+  it('should fall back once the stream is closed', function() {
+    var fallback = false;
+    push.connect(mockCalendar([]), function() { fallback = true; });
+
+    source.readyState = window.EventSource.CLOSED;
+    source.onerror();
+    expect(fallback).to.equal(true);
+  });
+});
@@ -0,0 +1,53 @@
+'use strict';
+
+/* global describe:false, it:false, beforeEach:false */
+
+var requireUncached = require('import-fresh');
+var mock = require('./mock');
+
+var chai = require('chai');
+var expect = chai.expect;
+
+var sync;
+
+function mockCalendar(ids) {
+  var calendar = { events: ids.map(function(id) { return { id: id }; }) };
+  calendar.fullCalendar = function(method, arg) {
+    if (method === 'removeEvents') {
+      calendar.events = arg ? calendar.events.filter(function(e) { return !arg(e); }) : [];
+    }
+    if (method === 'renderEvents') {
+      calendar.events = calendar.events.concat(arg);
+    }
+  };
+  return calendar;
+}
+
+function idsOf(calendar) {
+  return calendar.events.map(function(e) { return e.id; });
+}
+
+describe('sync.apply()', function() {
+  beforeEach(function() {
+    mock.jquery('<html></html>');
+    mock.calendarViewOptions();
+    sync = requireUncached('../../main/js/sync.js');
+  });
+
+  it('should replace changed and drop removed events', function() {
+    var calendar = mockCalendar(['a', 'b', 'c']);
+
+    sync.apply(calendar, { delta: true, events: [{ id: 'b', state: 'finished' }, { id: 'd' }], removed: ['c'], icons: {} });
+
+    expect(idsOf(calendar)).to.eql(['a', 'b', 'd']);
+    expect(calendar.events[1].state).to.equal('finished');
+  });
+
+  it('should replace all events if response is no delta', function() {
+    var calendar = mockCalendar(['a', 'b']);
+
+    sync.apply(calendar, { events: [{ id: 'c' }], icons: {} });
+
+    expect(idsOf(calendar)).to.eql(['c']);
+  });
+});